@@ -0,0 +1,110 @@
+/*
+ *  Copyright (c) 2012-2013, Jan Bernitt 
+ *			
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bench;
+
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.util.Typecast.listTypeOf;
+import static se.jbee.inject.util.Typecast.providerTypeOf;
+import static se.jbee.inject.util.Typecast.setTypeOf;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.jbee.inject.Dependency;
+import se.jbee.inject.Injector;
+import se.jbee.inject.bind.BinderModule;
+import se.jbee.inject.bind.BuildinBundle;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.BootstrapperBundle;
+import se.jbee.inject.util.Provider;
+
+/**
+ * Resolution of multibind arrays, the {@link List} and {@link Set} bridges and
+ * {@link Provider#provide()}.
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+@State ( Scope.Benchmark )
+@BenchmarkMode ( Mode.Throughput )
+@OutputTimeUnit ( TimeUnit.SECONDS )
+@Warmup ( iterations = 5, time = 1 )
+@Measurement ( iterations = 5, time = 1 )
+@Fork ( 1 )
+public class CollectionBenchmark {
+
+	public static class CollectionBenchmarkModule
+			extends BinderModule {
+
+		@Override
+		protected void declare() {
+			multibind( Integer.class ).to( 1 );
+			multibind( Integer.class ).to( 2 );
+			multibind( Integer.class ).to( 3 );
+			multibind( Integer.class ).to( 4 );
+			bind( String.class ).to( "provided" );
+		}
+	}
+
+	public static class CollectionBenchmarkBundle
+			extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			installAll( BuildinBundle.class );
+			install( CollectionBenchmarkModule.class );
+		}
+	}
+
+	private Injector injector;
+	private Provider<String> provider;
+	private final Dependency<Integer[]> array = dependency( Integer[].class );
+	private final Dependency<List<Integer>> list = dependency( listTypeOf( Integer.class ) );
+	private final Dependency<Set<Integer>> set = dependency( setTypeOf( Integer.class ) );
+	private final Dependency<Provider<String>> providerDependency = dependency( providerTypeOf( String.class ) );
+
+	@Setup
+	public void setup() {
+		injector = Bootstrap.injector( CollectionBenchmarkBundle.class );
+		provider = injector.resolve( providerDependency );
+	}
+
+	@Benchmark
+	public Integer[] multibindArray() {
+		return injector.resolve( array );
+	}
+
+	@Benchmark
+	public List<Integer> listBridge() {
+		return injector.resolve( list );
+	}
+
+	@Benchmark
+	public Set<Integer> setBridge() {
+		return injector.resolve( set );
+	}
+
+	@Benchmark
+	public Provider<String> providerBridge() {
+		return injector.resolve( providerDependency );
+	}
+
+	@Benchmark
+	public String provide() {
+		return provider.provide();
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ *  Copyright (c) 2012-2013, Jan Bernitt 
+ *			
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bench;
+
+import static se.jbee.inject.Dependency.dependency;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.jbee.inject.Dependency;
+import se.jbee.inject.Injector;
+import se.jbee.inject.bind.BinderModule;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.util.Scoped;
+
+/**
+ * Several threads resolving singletons of the same {@link Injector} at once. Each iteration starts
+ * with a fresh {@link Injector} so the first resolves also measure concurrent creation.
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+@State ( Scope.Benchmark )
+@BenchmarkMode ( Mode.Throughput )
+@OutputTimeUnit ( TimeUnit.SECONDS )
+@Warmup ( iterations = 5, time = 1 )
+@Measurement ( iterations = 5, time = 1 )
+@Fork ( 1 )
+@Threads ( 4 )
+public class ContentionBenchmark {
+
+	public static class A {
+
+		// no state
+	}
+
+	public static class B {
+
+		public B( A a ) {
+			// just a dependency
+		}
+	}
+
+	public static class C {
+
+		public C( B b ) {
+			// just a dependency
+		}
+	}
+
+	public static class D {
+
+		public D( A a, C c ) {
+			// just dependencies
+		}
+	}
+
+	public static class ContentionBenchmarkModule
+			extends BinderModule {
+
+		@Override
+		protected void declare() {
+			per( Scoped.APPLICATION ).bind( A.class ).toConstructor();
+			per( Scoped.APPLICATION ).bind( B.class ).toConstructor();
+			per( Scoped.APPLICATION ).bind( C.class ).toConstructor();
+			per( Scoped.APPLICATION ).bind( D.class ).toConstructor();
+		}
+	}
+
+	private Injector injector;
+	private final Dependency<A> a = dependency( A.class );
+	private final Dependency<D> d = dependency( D.class );
+
+	@Setup ( Level.Iteration )
+	public void setup() {
+		injector = Bootstrap.injector( ContentionBenchmarkModule.class );
+	}
+
+	@Benchmark
+	public A independentSingleton() {
+		return injector.resolve( a );
+	}
+
+	@Benchmark
+	public D dependentSingleton() {
+		return injector.resolve( d );
+	}
+}
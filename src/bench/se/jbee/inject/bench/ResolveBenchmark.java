@@ -0,0 +1,245 @@
+/*
+ *  Copyright (c) 2012-2013, Jan Bernitt 
+ *			
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bench;
+
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.Name.named;
+import static se.jbee.inject.util.Typecast.collectionTypeOf;
+import static se.jbee.inject.util.Typecast.listTypeOf;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.jbee.inject.Dependency;
+import se.jbee.inject.Injector;
+import se.jbee.inject.Resolver;
+import se.jbee.inject.Type;
+import se.jbee.inject.bind.BinderModule;
+import se.jbee.inject.bootstrap.Bindings;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.Inspect;
+import se.jbee.inject.bootstrap.Invoke;
+import se.jbee.inject.bootstrap.Invoker;
+import se.jbee.inject.bootstrap.Macros;
+import se.jbee.inject.config.Globals;
+import se.jbee.inject.util.Scoped;
+
+/**
+ * Resolution of single instances: singletons, per injection constructed instances and
+ * targeted or named bindings.
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+@State ( Scope.Benchmark )
+@BenchmarkMode ( Mode.Throughput )
+@OutputTimeUnit ( TimeUnit.SECONDS )
+@Warmup ( iterations = 5, time = 1 )
+@Measurement ( iterations = 5, time = 1 )
+@Fork ( 1 )
+public class ResolveBenchmark {
+
+	public static class Singleton {
+
+		// no state
+	}
+
+	public static class Leaf {
+
+		// no state
+	}
+
+	public static class Node {
+
+		final Leaf leaf;
+
+		public Node( Leaf leaf ) {
+			this.leaf = leaf;
+		}
+	}
+
+	public static class Root {
+
+		final Node left;
+		final Node right;
+		final String name;
+
+		public Root( Node left, Node right, String name ) {
+			this.left = left;
+			this.right = right;
+			this.name = name;
+		}
+	}
+
+	/**
+	 * A chain of per injection instances 8 levels deep.
+	 */
+	public static class Level1 {
+
+		public Level1( Level2 next ) {
+			// just the depth matters
+		}
+	}
+
+	public static class Level2 {
+
+		public Level2( Level3 next ) {
+			// just the depth matters
+		}
+	}
+
+	public static class Level3 {
+
+		public Level3( Level4 next ) {
+			// just the depth matters
+		}
+	}
+
+	public static class Level4 {
+
+		public Level4( Level5 next ) {
+			// just the depth matters
+		}
+	}
+
+	public static class Level5 {
+
+		public Level5( Level6 next ) {
+			// just the depth matters
+		}
+	}
+
+	public static class Level6 {
+
+		public Level6( Level7 next ) {
+			// just the depth matters
+		}
+	}
+
+	public static class Level7 {
+
+		public Level7( Level8 next ) {
+			// just the depth matters
+		}
+	}
+
+	public static class Level8 {
+
+		// the bottom
+	}
+
+	public static class ResolveBenchmarkModule
+			extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind( Singleton.class ).toConstructor();
+			bind( String.class ).to( "default" );
+			injectingInto( Root.class ).bind( String.class ).to( "root" );
+			bind( named( "exact" ), String.class ).to( "exact" );
+			bind( named( "wild*card" ), String.class ).to( "wildcard" );
+			per( Scoped.INJECTION ).bind( Leaf.class ).toConstructor();
+			per( Scoped.INJECTION ).bind( Node.class ).toConstructor();
+			per( Scoped.INJECTION ).bind( Root.class ).toConstructor();
+			per( Scoped.INJECTION ).bind( Level1.class ).toConstructor();
+			per( Scoped.INJECTION ).bind( Level2.class ).toConstructor();
+			per( Scoped.INJECTION ).bind( Level3.class ).toConstructor();
+			per( Scoped.INJECTION ).bind( Level4.class ).toConstructor();
+			per( Scoped.INJECTION ).bind( Level5.class ).toConstructor();
+			per( Scoped.INJECTION ).bind( Level6.class ).toConstructor();
+			per( Scoped.INJECTION ).bind( Level7.class ).toConstructor();
+			per( Scoped.INJECTION ).bind( Level8.class ).toConstructor();
+		}
+	}
+
+	@Param ( { "reflection", "method-handles" } )
+	public String invoker;
+
+	private Injector injector;
+	private Resolver<Singleton> singletonResolver;
+	private final Dependency<Singleton> singleton = dependency( Singleton.class );
+	private final Dependency<Root> root = dependency( Root.class );
+	private final Dependency<Level1> deep = dependency( Level1.class );
+	private final Dependency<String> targeted = dependency( String.class ).injectingInto(
+			Root.class );
+	private final Dependency<String> exact = dependency( String.class ).named( "exact" );
+	private final Dependency<String> wildcard = dependency( String.class ).named( "wild-or-card" );
+	private final Type<?> listOfStrings = listTypeOf( String.class );
+	private final Type<?> collectionOfStrings = collectionTypeOf( String.class );
+
+	@Setup
+	public void setup() {
+		Invoker strategy = "method-handles".equals( invoker )
+			? Invoke.METHOD_HANDLES
+			: Invoke.REFLECTION;
+		injector = Bootstrap.injector( ResolveBenchmarkModule.class,
+				Bindings.bindings( Macros.DEFAULT.invokedBy( strategy ), Inspect.DEFAULT ),
+				Globals.STANDARD );
+		singletonResolver = injector.resolver( singleton );
+	}
+
+	@Benchmark
+	public Singleton singleton() {
+		return injector.resolve( singleton );
+	}
+
+	@Benchmark
+	public Singleton singletonResolver() {
+		return singletonResolver.get();
+	}
+
+	@Benchmark
+	public Root perInjectionConstructor() {
+		return injector.resolve( root );
+	}
+
+	@Benchmark
+	public Level1 perInjectionDeepGraph() {
+		return injector.resolve( deep );
+	}
+
+	@Benchmark
+	public String targeted() {
+		return injector.resolve( targeted );
+	}
+
+	@Benchmark
+	public String namedExact() {
+		return injector.resolve( exact );
+	}
+
+	@Benchmark
+	public String namedWildcard() {
+		return injector.resolve( wildcard );
+	}
+
+	/**
+	 * After the first call the result is memorised. The gc profiler should report no bytes
+	 * allocated per operation.
+	 */
+	@Benchmark
+	public boolean typeAssignableMemorised() {
+		return listOfStrings.isAssignableTo( collectionOfStrings );
+	}
+
+	/**
+	 * Like {@link #typeAssignableMemorised()} should not allocate.
+	 */
+	@Benchmark
+	public boolean typeMorePreciseMemorised() {
+		return listOfStrings.morePreciseThan( collectionOfStrings );
+	}
+}
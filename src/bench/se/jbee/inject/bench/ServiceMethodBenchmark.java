@@ -0,0 +1,117 @@
+/*
+ *  Copyright (c) 2012-2013, Jan Bernitt 
+ *			
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bench;
+
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.Type.raw;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.jbee.inject.Type;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.service.ServiceInvocation;
+import se.jbee.inject.service.ServiceInvocation.ServiceInvocationExtension;
+import se.jbee.inject.service.ServiceMethod;
+import se.jbee.inject.service.ServiceModule;
+import se.jbee.inject.util.Value;
+
+/**
+ * {@link ServiceMethod#invoke(Object)} without any and with a {@link ServiceInvocation} that does
+ * nothing.
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+@State ( Scope.Benchmark )
+@BenchmarkMode ( Mode.Throughput )
+@OutputTimeUnit ( TimeUnit.SECONDS )
+@Warmup ( iterations = 5, time = 1 )
+@Measurement ( iterations = 5, time = 1 )
+@Fork ( 1 )
+public class ServiceMethodBenchmark {
+
+	public static class BenchmarkService {
+
+		public Integer twice( Integer value ) {
+			return value * 2;
+		}
+	}
+
+	public static class NoOpInvocation
+			implements ServiceInvocation<Void> {
+
+		@Override
+		public <P, R> Void before( Value<P> parameter, Type<R> result ) {
+			return null;
+		}
+
+		@Override
+		public <P, R> void after( Value<P> parameter, Value<R> result, Void before ) {
+			// nothing
+		}
+
+		@Override
+		public <P, R> void afterException( Value<P> parameter, Type<R> result, Exception e,
+				Void before ) {
+			// nothing
+		}
+	}
+
+	public static class PlainServiceModule
+			extends ServiceModule {
+
+		@Override
+		protected void declare() {
+			bindServiceMethodsIn( BenchmarkService.class );
+		}
+	}
+
+	public static class InvocationServiceModule
+			extends ServiceModule {
+
+		@Override
+		protected void declare() {
+			bindServiceMethodsIn( BenchmarkService.class );
+			extend( ServiceInvocationExtension.RETURN_TYPE, NoOpInvocation.class );
+		}
+	}
+
+	private ServiceMethod<Integer, Integer> plain;
+	private ServiceMethod<Integer, Integer> invocation;
+	private final Integer value = 21;
+
+	@Setup
+	public void setup() {
+		plain = twice( PlainServiceModule.class );
+		invocation = twice( InvocationServiceModule.class );
+	}
+
+	@SuppressWarnings ( "unchecked" )
+	private static ServiceMethod<Integer, Integer> twice( Class<? extends ServiceModule> module ) {
+		return Bootstrap.injector( module ).resolve(
+				dependency( raw( ServiceMethod.class ).parametized( Integer.class, Integer.class ) ) );
+	}
+
+	@Benchmark
+	public Integer invoke() {
+		return plain.invoke( value );
+	}
+
+	@Benchmark
+	public Integer invokeWithServiceInvocation() {
+		return invocation.invoke( value );
+	}
+}
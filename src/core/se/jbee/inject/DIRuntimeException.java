@@ -5,6 +5,9 @@
  */
 package se.jbee.inject;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collection;
 
@@ -17,10 +20,24 @@ import java.util.Collection;
 public class DIRuntimeException
 		extends RuntimeException {
 
+	/**
+	 * When the system property <code>se.jbee.inject.stackless</code> is <code>true</code> no
+	 * stack traces are captured for {@link DIRuntimeException}s. This makes them cheap for code
+	 * that expects and handles them.
+	 */
+	private static final boolean STACKLESS = Boolean.getBoolean( "se.jbee.inject.stackless" );
+
 	public DIRuntimeException( String message ) {
 		super( message );
 	}
 
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return STACKLESS
+			? this
+			: super.fillInStackTrace();
+	}
+
 	@Override
 	public String toString() {
 		return getMessage();
@@ -73,14 +90,59 @@ public class DIRuntimeException
 	public static final class NoSuchResourceException
 			extends DIRuntimeException {
 
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The {@link Dependency} and {@link Injectron}s are only kept until the message is
+		 * formatted. They are not serializable and would keep the {@link Injector} reachable.
+		 */
+		private transient Dependency<?> dependency;
+		private transient Injectron<?>[] available;
+		private volatile String message;
+
 		public <T> NoSuchResourceException( Dependency<T> dependency, Injectron<T>[] available ) {
-			super( "No resource for dependency: " + injectionStack( dependency )
-					+ dependency.getInstance() + "\navailable are (for same raw type): "
-					+ describe( available ) );
+			super( null );
+			this.dependency = dependency;
+			this.available = available;
 		}
 
 		public NoSuchResourceException( Collection<Type<?>> types ) {
 			super( "No resource for required type(s) " + types );
+			this.dependency = null;
+			this.available = null;
+		}
+
+		/**
+		 * The message is formatted when first asked for since describing all available
+		 * {@link Injectron}s is expensive and often not needed by code that handles the exception.
+		 */
+		@Override
+		public String getMessage() {
+			String res = message;
+			if ( res != null ) {
+				return res;
+			}
+			synchronized ( this ) {
+				if ( message != null ) {
+					return message;
+				}
+				if ( dependency == null ) {
+					return super.getMessage();
+				}
+				res = "No resource for dependency: " + injectionStack( dependency )
+						+ dependency.getInstance() + "\navailable are (for same raw type): "
+						+ describe( available );
+				message = res;
+				dependency = null;
+				available = null;
+			}
+			return res;
+		}
+
+		private void writeObject( ObjectOutputStream out )
+				throws IOException {
+			getMessage(); // the message is all that is kept
+			out.defaultWriteObject();
 		}
 	}
 
@@ -111,4 +173,23 @@ public class DIRuntimeException
 		}
 	}
 
+	/**
+	 * More then one method matches the {@link Type}s a method has been described by (e.g. for use
+	 * as a service). Since it is not clear which one to use none is used. Change the signature of
+	 * one of them or bind them in separate contexts.
+	 * 
+	 * @author Jan Bernitt (jan@jbee.se)
+	 */
+	public static final class AmbiguousFunctionException
+			extends DIRuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		public AmbiguousFunctionException( Type<?> returnType, Type<?> parameterType,
+				Method... candidates ) {
+			super( "Ambiguous " + returnType + ":" + parameterType + " implemented by "
+					+ Arrays.toString( candidates ) );
+		}
+	}
+
 }
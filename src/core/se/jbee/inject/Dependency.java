@@ -28,7 +28,7 @@ public final class Dependency<T>
 	 * A empty {@link Injection} hierarchy. It is used whenever the {@link Dependency} does not
 	 * depend on the actual hierarchy. This is the default.
 	 */
-	private static final Injection[] UNTARGETED = new Injection[0];
+	private static final Frame UNTARGETED = null;
 
 	public static <T> Dependency<T> dependency( Class<T> type ) {
 		return dependency( raw( type ) );
@@ -38,7 +38,7 @@ public final class Dependency<T>
 		return dependency( type, UNTARGETED );
 	}
 
-	private static <T> Dependency<T> dependency( Type<T> type, Injection[] hierarchy ) {
+	private static <T> Dependency<T> dependency( Type<T> type, Frame hierarchy ) {
 		return dependency( instance( Name.ANY, type ), hierarchy );
 	}
 
@@ -46,14 +46,18 @@ public final class Dependency<T>
 		return dependency( instance, UNTARGETED );
 	}
 
-	private static <T> Dependency<T> dependency( Instance<T> instance, Injection[] hierarchy ) {
+	private static <T> Dependency<T> dependency( Instance<T> instance, Frame hierarchy ) {
 		return new Dependency<T>( instance, hierarchy );
 	}
 
-	private final Injection[] hierarchy;
+	/**
+	 * The innermost {@link Injection} of the hierarchy; its parents are linked so that going one
+	 * level deeper shares the whole path above instead of copying it.
+	 */
+	private final Frame hierarchy;
 	private final Instance<T> instance;
 
-	private Dependency( Instance<T> instance, Injection... hierarchy ) {
+	private Dependency( Instance<T> instance, Frame hierarchy ) {
 		this.instance = instance;
 		this.hierarchy = hierarchy;
 	}
@@ -74,9 +78,9 @@ public final class Dependency<T>
 
 	@Override
 	public String toString() {
-		return instance.toString() + ( hierarchy.length == 0
+		return instance.toString() + ( hierarchy == UNTARGETED
 			? ""
-			: " " + Arrays.toString( hierarchy ) );
+			: " " + Arrays.toString( injections() ) );
 	}
 
 	public Dependency<?> onTypeParameter() {
@@ -113,18 +117,14 @@ public final class Dependency<T>
 	}
 
 	public Dependency<T> ignoredExpiry() {
-		if ( hierarchy.length == 0 ) {
+		if ( hierarchy == UNTARGETED ) {
 			return this;
 		}
-		Injection[] ignored = new Injection[hierarchy.length];
-		for ( int i = 0; i < ignored.length; i++ ) {
-			ignored[i] = hierarchy[i].ignoredExpiry();
-		}
-		return dependency( instance, ignored );
+		return dependency( instance, hierarchy.ignoredExpiry() );
 	}
 
 	public boolean isUntargeted() {
-		return hierarchy.length == 0;
+		return hierarchy == UNTARGETED;
 	}
 
 	public Instance<?> target() {
@@ -132,13 +132,34 @@ public final class Dependency<T>
 	}
 
 	public Instance<?> target( int level ) {
-		return isUntargeted()
-			? Instance.ANY
-			: hierarchy[hierarchy.length - 1 - level].getTarget().getInstance();
+		if ( isUntargeted() ) {
+			return Instance.ANY;
+		}
+		Frame frame = hierarchy;
+		for ( int i = 0; i < level; i++ ) {
+			frame = frame.parent;
+		}
+		return frame.injection.getTarget().getInstance();
+	}
+
+	/**
+	 * @return The targets of all levels at once; index <code>i</code> is equal to
+	 *         {@link #target(int)} with <code>i</code> as level.
+	 */
+	public Instance<?>[] targets() {
+		Instance<?>[] targets = new Instance<?>[injectionDepth()];
+		Frame frame = hierarchy;
+		for ( int i = 0; i < targets.length; i++ ) {
+			targets[i] = frame.injection.getTarget().getInstance();
+			frame = frame.parent;
+		}
+		return targets;
 	}
 
 	public int injectionDepth() {
-		return hierarchy.length;
+		return hierarchy == UNTARGETED
+			? 0
+			: hierarchy.depth;
 	}
 
 	/**
@@ -158,39 +179,56 @@ public final class Dependency<T>
 
 	public Dependency<T> injectingInto( Emergence<?> target ) {
 		Injection injection = new Injection( instance, target );
-		if ( hierarchy.length == 0 ) {
-			return new Dependency<T>( instance, injection );
+		int hash = hashOf( instance, target.getInstance() );
+		if ( hierarchy == UNTARGETED ) {
+			return new Dependency<T>( instance, new Frame( injection, hash, UNTARGETED ) );
 		}
 		ensureNotMoreFrequentExpiry( injection );
-		ensureNoCycle( injection );
-		return new Dependency<T>( instance, Array.append( hierarchy, injection ) );
+		ensureNoCycle( injection, hash );
+		return new Dependency<T>( instance, new Frame( injection, hash, hierarchy ) );
 	}
 
 	public Dependency<T> uninject() {
-		if ( hierarchy.length <= 1 ) {
+		if ( hierarchy == UNTARGETED || hierarchy.parent == UNTARGETED ) {
 			return untargeted();
 		}
-		return new Dependency<T>( instance, Array.copy( hierarchy, hierarchy.length - 1 ) );
+		return new Dependency<T>( instance, hierarchy.parent );
 	}
 
-	private void ensureNoCycle( Injection injection )
+	private void ensureNoCycle( Injection injection, int hash )
 			throws DependencyCycleException {
-		for ( int i = 0; i < hierarchy.length; i++ ) {
-			Injection parent = hierarchy[i];
-			if ( parent.equalTo( injection ) ) {
+		if ( ( hierarchy.signature & Frame.bit( hash ) ) == 0L ) {
+			return; // no injection of the path can be equal
+		}
+		Frame frame = hierarchy;
+		while ( frame != UNTARGETED ) {
+			if ( frame.hash == hash && frame.injection.equalTo( injection ) ) {
 				throw new DependencyCycleException( this, injection.getTarget().getInstance() );
 			}
+			frame = frame.parent;
 		}
 	}
 
 	private void ensureNotMoreFrequentExpiry( Injection injection ) {
-		final Expiry expiry = injection.getTarget().getExpiry();
-		for ( int i = 0; i < hierarchy.length; i++ ) {
-			Injection parent = hierarchy[i];
-			if ( expiry.moreFrequent( parent.getTarget().getExpiry() ) ) {
-				throw new MoreFrequentExpiryException( parent, injection );
-			}
+		final Injection longest = hierarchy.longestLiving;
+		if ( injection.getTarget().getExpiry().moreFrequent( longest.getTarget().getExpiry() ) ) {
+			throw new MoreFrequentExpiryException( longest, injection );
+		}
+	}
+
+	private Injection[] injections() {
+		Injection[] injections = new Injection[injectionDepth()];
+		Frame frame = hierarchy;
+		for ( int i = injections.length - 1; i >= 0; i-- ) {
+			injections[i] = frame.injection;
+			frame = frame.parent;
 		}
+		return injections;
+	}
+
+	private static int hashOf( Instance<?> dependency, Instance<?> target ) {
+		return 31 * ( 31 * dependency.getName().hashCode() + dependency.getType().hashCode() )
+				+ 31 * target.getName().hashCode() + target.getType().hashCode();
 	}
 
 	@Override
@@ -200,6 +238,51 @@ public final class Dependency<T>
 
 	@Override
 	public Iterator<Injection> iterator() {
-		return Arrays.asList( hierarchy ).iterator();
+		return Arrays.asList( injections() ).iterator();
+	}
+
+	/**
+	 * One level of the {@link Injection} hierarchy linked to its parent level. Each frame
+	 * accumulates what is needed to check the next level in constant time: a bit signature of all
+	 * {@link Injection}s on the path (to rule out cycles) and the {@link Injection} with the least
+	 * frequent {@link Expiry} (the only one a more frequent expiry has to be compared with).
+	 */
+	private static final class Frame {
+
+		static long bit( int hash ) {
+			return 1L << ( hash & 63 );
+		}
+
+		final Injection injection;
+		final int hash;
+		final Frame parent;
+		final int depth;
+		final long signature;
+		final Injection longestLiving;
+
+		Frame( Injection injection, int hash, Frame parent ) {
+			super();
+			this.injection = injection;
+			this.hash = hash;
+			this.parent = parent;
+			if ( parent == UNTARGETED ) {
+				this.depth = 1;
+				this.signature = bit( hash );
+				this.longestLiving = injection;
+			} else {
+				this.depth = parent.depth + 1;
+				this.signature = parent.signature | bit( hash );
+				this.longestLiving = parent.longestLiving.getTarget().getExpiry().moreFrequent(
+						injection.getTarget().getExpiry() )
+					? injection
+					: parent.longestLiving;
+			}
+		}
+
+		Frame ignoredExpiry() {
+			return new Frame( injection.ignoredExpiry(), hash, parent == UNTARGETED
+				? UNTARGETED
+				: parent.ignoredExpiry() );
+		}
 	}
 }
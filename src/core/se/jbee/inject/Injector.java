@@ -39,4 +39,42 @@ public interface Injector {
 	 */
 	<T> T resolve( Dependency<T> dependency )
 			throws NoSuchResourceException, MoreFrequentExpiryException, DependencyCycleException;
+
+	/**
+	 * Like {@link #resolve(Dependency)} but the absence of a {@link Resource} matching the given
+	 * {@link Dependency} is reported by returning <code>null</code> instead of throwing an
+	 * exception. Use it when the absence is expected (e.g. to fall back to a default).
+	 * 
+	 * Problems resolving the dependencies of the instance found are still thrown.
+	 * 
+	 * @return The instance appropriate for the given {@link Dependency} or <code>null</code> in
+	 *         case there is no {@link Resource} in this injector's context matching it.
+	 * @throws MoreFrequentExpiryException
+	 *             In case the resolution would cause the injection of a instance into another that
+	 *             has a higher {@link Expiry}.
+	 * @throws DependencyCycleException
+	 *             In case the resolution caused a situation of cyclic dependent instances so that
+	 *             they cannot be injected.
+	 */
+	<T> T tryResolve( Dependency<T> dependency )
+			throws MoreFrequentExpiryException, DependencyCycleException;
+
+	/**
+	 * Does the lookup of {@link #resolve(Dependency)} once so that the returned {@link Resolver}
+	 * can be asked for instances again and again without any further lookup.
+	 * 
+	 * @return A {@link Resolver} bound to the {@link Injectron} applicable for the given
+	 *         {@link Dependency}.
+	 * @throws NoSuchResourceException
+	 *             In case no {@link Resource} in this injector's context matches the given
+	 *             dependency.
+	 * @throws MoreFrequentExpiryException
+	 *             In case the resolution would cause the injection of a instance into another that
+	 *             has a higher {@link Expiry}.
+	 * @throws DependencyCycleException
+	 *             In case the resolution caused a situation of cyclic dependent instances so that
+	 *             they cannot be injected.
+	 */
+	<T> Resolver<T> resolver( Dependency<T> dependency )
+			throws NoSuchResourceException, MoreFrequentExpiryException, DependencyCycleException;
 }
@@ -35,6 +35,12 @@ public final class Name
 	public static final Name ANY = new Name( WILDCARD );
 
 	private final String value;
+	/**
+	 * The parts of the {@link #value} separated by {@link #WILDCARD}s or <code>null</code> if the
+	 * value does not contain any wildcard. Computed once so that matching is done without regular
+	 * expressions.
+	 */
+	private final String[] glob;
 
 	/**
 	 * @see #namedInternal(String)
@@ -73,6 +79,9 @@ public final class Name
 	private Name( String value ) {
 		super();
 		this.value = value.intern();
+		this.glob = value.contains( WILDCARD )
+			? value.split( "\\" + WILDCARD, -1 )
+			: null;
 	}
 
 	@Override
@@ -95,7 +104,7 @@ public final class Name
 	}
 
 	public boolean isAny() {
-		return value.equals( ANY.value );
+		return value == WILDCARD;
 	}
 
 	public boolean isDefault() {
@@ -126,8 +135,34 @@ public final class Name
 	}
 
 	public boolean isApplicableFor( Name other ) {
-		return isAny() || other.isAny() || other.value == value
-				|| ( value.matches( other.value.replace( WILDCARD, ".*" ) ) );
+		return isAny() || other.isAny() || other.value == value || other.matches( value );
+	}
+
+	/**
+	 * @return true if the given name matches this name whereby {@link #WILDCARD}s in this name
+	 *         match any sequence of characters.
+	 */
+	private boolean matches( String name ) {
+		if ( glob == null ) {
+			return false; // literals are interned so equal values are identical
+		}
+		final String first = glob[0];
+		final String last = glob[glob.length - 1];
+		if ( !name.startsWith( first ) || name.length() - last.length() < first.length()
+				|| !name.endsWith( last ) ) {
+			return false;
+		}
+		int start = first.length();
+		final int end = name.length() - last.length();
+		for ( int i = 1; i < glob.length - 1; i++ ) {
+			final String part = glob[i];
+			final int index = name.indexOf( part, start );
+			if ( index < 0 || index + part.length() > end ) {
+				return false;
+			}
+			start = index + part.length();
+		}
+		return true;
 	}
 
 	public static Name namedBy( Class<? extends Annotation> annotation, AnnotatedElement obj ) {
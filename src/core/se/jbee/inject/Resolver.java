@@ -0,0 +1,33 @@
+/*
+ *  Copyright (c) 2012-2013, Jan Bernitt 
+ *			
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject;
+
+/**
+ * A {@link Dependency} that already has been resolved to the {@link Injectron} that is applicable
+ * for it within a specific {@link Injector}.
+ * 
+ * Other than {@link Injector#resolve(Dependency)} the lookup does not happen again for each
+ * instance asked for. Scoping effects still apply so {@link #get()} returns the same instances as
+ * the {@link Injector} would.
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ * 
+ * @param <T>
+ *            Type of the resolved instances
+ */
+public interface Resolver<T> {
+
+	/**
+	 * @return The instance for the {@link Dependency} this resolver has been created for. The
+	 *         <code>null</code>-reference will never be returned.
+	 */
+	T get();
+
+	/**
+	 * @return The {@link Dependency} this resolver has been created for.
+	 */
+	Dependency<T> getDependency();
+}
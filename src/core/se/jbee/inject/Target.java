@@ -88,13 +88,14 @@ public final class Target
 			return true;
 		}
 		int pl = parents.depth();
-		int il = dependency.injectionDepth() - 1;
+		Instance<?>[] targets = dependency.targets();
+		int il = targets.length - 1;
 		if ( pl > il ) {
 			return false;
 		}
 		int pi = 0;
 		while ( pl <= il && pl > 0 ) {
-			if ( injectable( parents.at( pi ).getType(), dependency.target( il ).getType() ) ) {
+			if ( injectable( parents.at( pi ).getType(), targets[il].getType() ) ) {
 				pl--;
 				pi++;
 			}
@@ -5,6 +5,7 @@
  */
 package se.jbee.inject;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.GenericArrayType;
@@ -32,6 +33,25 @@ import java.util.Set;
 public final class Type<T>
 		implements PreciserThan<Type<?>>, Parameter<T> {
 
+	/**
+	 * The empty memory each {@link Type} starts with. Declared first since the constants below
+	 * already need it.
+	 */
+	private static final Memo[] NO_MEMOS = new Memo[0];
+
+	/**
+	 * The canonical raw {@link Type} of each {@link Class} so that {@link #raw(Class)} does not
+	 * create a new instance each time. A {@link ClassValue} is read without locking and does not
+	 * prevent classes from being unloaded.
+	 */
+	private static final ClassValue<Type<?>> RAW_TYPES = new ClassValue<Type<?>>() {
+
+		@Override
+		protected Type<?> computeValue( Class<?> type ) {
+			return newRaw( type );
+		}
+	};
+
 	public static final Type<Object> OBJECT = Type.raw( Object.class );
 	public static final Type<Void> VOID = raw( Void.class );
 	public static final Type<? extends Object> WILDCARD = OBJECT.asUpperBound();
@@ -69,7 +89,12 @@ public final class Type<T>
 		return (Type<T>) raw( arrayType ).elementType();
 	}
 
+	@SuppressWarnings ( "unchecked" )
 	public static <T> Type<T> raw( Class<T> type ) {
+		return (Type<T>) RAW_TYPES.get( type );
+	}
+
+	private static <T> Type<T> newRaw( Class<T> type ) {
 		return new Type<T>( type );
 	}
 
@@ -130,6 +155,25 @@ public final class Type<T>
 	 */
 	private final boolean upperBound;
 
+	/**
+	 * Lazy computed result of {@link #supertypes()}.
+	 */
+	private volatile Type<? super T>[] supertypes;
+	/**
+	 * The number of other {@link Type}s a {@link Type} memorises the result of
+	 * {@link #isAssignableTo(Type)} or {@link #morePreciseThan(Type)} for.
+	 */
+	private static final int MEMORY_LIMIT = 64;
+
+	/**
+	 * Memory of {@link #isAssignableTo(Type)} for parameterized types, most recent first.
+	 */
+	private volatile Memo[] assignable = NO_MEMOS;
+	/**
+	 * Memory of {@link #morePreciseThan(Type)}, most recent first.
+	 */
+	private volatile Memo[] morePrecise = NO_MEMOS;
+
 	private Type( boolean upperBound, Class<T> rawType, Type<?>[] parameters ) {
 		assert ( rawType != null );
 		this.rawType = primitiveAsWrapper( rawType );
@@ -181,6 +225,28 @@ public final class Type<T>
 		return new Type<T[]>( upperBound, (Class<T[]>) proto.getClass(), params );
 	}
 
+	/**
+	 * Other than {@link #equalTo(Type)} this also compares the upper bound flags of this and the
+	 * other type as well as all their type parameters.
+	 * 
+	 * @return true, if this and the given type are the same in all aspects.
+	 */
+	public boolean identicalTo( Type<?> other ) {
+		if ( this == other ) {
+			return true;
+		}
+		if ( rawType != other.rawType || upperBound != other.upperBound
+				|| params.length != other.params.length ) {
+			return false;
+		}
+		for ( int i = 0; i < params.length; i++ ) {
+			if ( !params[i].identicalTo( other.params[i] ) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	public boolean equalTo( Type<?> other ) {
 		if ( this == other ) {
 			return true;
@@ -262,6 +328,17 @@ public final class Type<T>
 		if ( !isParameterized() || other.isRawType() ) {
 			return true; //raw type is ok - no parameters to check
 		}
+		final Memo[] memos = assignable;
+		Memo memo = recall( memos, other );
+		if ( memo != null ) {
+			return memo.result;
+		}
+		boolean res = parametersAssignableTo( other );
+		assignable = memorise( memos, other, res );
+		return res;
+	}
+
+	private boolean parametersAssignableTo( Type<?> other ) {
 		if ( other.rawType == rawType ) { // both have the same rawType
 			return allParametersAreAssignableTo( other );
 		}
@@ -336,6 +413,49 @@ public final class Type<T>
 
 	@Override
 	public boolean morePreciseThan( Type<?> other ) {
+		final Memo[] memos = morePrecise;
+		Memo memo = recall( memos, other );
+		if ( memo != null ) {
+			return memo.result;
+		}
+		boolean res = morePreciseTypeThan( other );
+		morePrecise = memorise( memos, other, res );
+		return res;
+	}
+
+	private static Memo recall( Memo[] memos, Type<?> other ) {
+		final int hash = other.hashCode();
+		for ( int i = 0; i < memos.length; i++ ) {
+			Memo memo = memos[i];
+			if ( memo.hash == hash ) {
+				Type<?> type = memo.get();
+				if ( type == other || type != null && type.identicalTo( other ) ) {
+					return memo;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return The memory with the new result first followed by the previous results of
+	 *         {@link Type}s still in use. When full the oldest results are dropped.
+	 */
+	private static Memo[] memorise( Memo[] memos, Type<?> other, boolean result ) {
+		Memo[] res = new Memo[Math.min( memos.length + 1, MEMORY_LIMIT )];
+		res[0] = new Memo( other, result );
+		int size = 1;
+		for ( int i = 0; i < memos.length && size < res.length; i++ ) {
+			if ( memos[i].get() != null ) {
+				res[size++] = memos[i];
+			}
+		}
+		return size == res.length
+			? res
+			: Arrays.copyOf( res, size );
+	}
+
+	private boolean morePreciseTypeThan( Type<?> other ) {
 		if ( !rawType.isAssignableFrom( other.rawType ) ) {
 			return true;
 		}
@@ -501,7 +621,7 @@ public final class Type<T>
 		if ( supertype.getTypeParameters().length == 0 ) {
 			return raw( supertype ); // just for better performance 
 		}
-		for ( Type<?> s : type.supertypes() ) {
+		for ( Type<?> s : type.cachedSupertypes() ) {
 			if ( s.getRawType() == supertype ) {
 				return (Type<? extends S>) s;
 			}
@@ -516,6 +636,19 @@ public final class Type<T>
 	 *         type hierarchy.
 	 */
 	public Type<? super T>[] supertypes() {
+		return cachedSupertypes().clone();
+	}
+
+	private Type<? super T>[] cachedSupertypes() {
+		Type<? super T>[] res = supertypes;
+		if ( res == null ) {
+			res = allSupertypes();
+			supertypes = res;
+		}
+		return res;
+	}
+
+	private Type<? super T>[] allSupertypes() {
 		Set<Type<?>> res = new LinkedHashSet<Type<?>>();
 		Class<?> supertype = rawType;
 		java.lang.reflect.Type genericSupertype = null;
@@ -598,4 +731,25 @@ public final class Type<T>
 				+ " cannot be wrapped yet!" );
 	}
 
-}
\ No newline at end of file
+	/**
+	 * The memorised result of comparing a {@link Type} with another that is compared
+	 * {@link Type#identicalTo(Type)}.
+	 * 
+	 * The other {@link Type} is only referenced weakly so that memorising it does not prevent it
+	 * (and its class) from being garbage collected.
+	 * 
+	 * @author Jan Bernitt (jan@jbee.se)
+	 */
+	private static final class Memo
+			extends WeakReference<Type<?>> {
+
+		final int hash;
+		final boolean result;
+
+		Memo( Type<?> type, boolean result ) {
+			super( type );
+			this.hash = type.hashCode();
+			this.result = result;
+		}
+	}
+}
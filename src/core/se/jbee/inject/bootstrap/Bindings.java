@@ -16,6 +16,7 @@ import java.util.Set;
 
 import se.jbee.inject.Array;
 import se.jbee.inject.Type;
+import se.jbee.inject.bootstrap.BootstrapListener.Phase;
 
 /**
  * {@link Bindings} accumulate the {@link Binding} 4-tuples.
@@ -27,28 +28,43 @@ import se.jbee.inject.Type;
 public final class Bindings {
 
 	public static Bindings bindings( Macros macros, Inspector inspector ) {
-		return new Bindings( macros, inspector, new ArrayList<Binding<?>>( 128 ), false );
+		return new Bindings( macros, inspector, new ArrayList<Binding<?>>( 128 ), false,
+				BootstrapListener.SILENT );
 	}
 
 	private final Macros macros;
 	private final Inspector inspector;
 	private final List<Binding<?>> bindings;
 	private final boolean autobinding;
+	private final BootstrapListener listener;
 
 	private Bindings( Macros macros, Inspector inspector, List<Binding<?>> bindings,
-			boolean autobinding ) {
+			boolean autobinding, BootstrapListener listener ) {
 		this.macros = macros;
 		this.inspector = inspector;
 		this.bindings = bindings;
 		this.autobinding = autobinding;
+		this.listener = listener;
 	}
 
 	public Bindings autobinding() {
-		return new Bindings( macros, inspector, bindings, true );
+		return new Bindings( macros, inspector, bindings, true, listener );
 	}
 
 	public Bindings using( Inspector inspector ) {
-		return new Bindings( macros, inspector, bindings, autobinding );
+		return new Bindings( macros, inspector, bindings, autobinding, listener );
+	}
+
+	/**
+	 * @return {@link Bindings} that inform the given {@link BootstrapListener} about the phases
+	 *         of the bootstrapping they are used in.
+	 */
+	public Bindings observedBy( BootstrapListener listener ) {
+		return new Bindings( macros, inspector, bindings, autobinding, listener );
+	}
+
+	public BootstrapListener getListener() {
+		return listener;
 	}
 
 	/**
@@ -85,6 +101,7 @@ public final class Bindings {
 	}
 
 	public Binding<?>[] expand( Module... modules ) {
+		final Measure expand = Measure.start( listener );
 		Set<Class<?>> declared = new HashSet<Class<?>>();
 		Set<Class<?>> multimodals = new HashSet<Class<?>>();
 		for ( Module m : modules ) {
@@ -96,10 +113,14 @@ public final class Bindings {
 				}
 			}
 			if ( !hasBeenDeclared || multimodals.contains( ns ) ) {
+				final Measure declare = Measure.start( listener );
+				final int before = bindings.size();
 				m.declare( this );
+				declare.completed( Phase.MODULE, ns, bindings.size() - before );
 				declared.add( ns );
 			}
 		}
+		expand.completed( Phase.EXPAND, null, bindings.size() );
 		return toArray();
 	}
 
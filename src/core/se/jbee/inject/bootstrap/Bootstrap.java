@@ -17,11 +17,13 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import se.jbee.inject.Array;
 import se.jbee.inject.Injector;
 import se.jbee.inject.Injectron;
 import se.jbee.inject.Type;
+import se.jbee.inject.bootstrap.BootstrapListener.Phase;
 import se.jbee.inject.config.Edition;
 import se.jbee.inject.config.Feature;
 import se.jbee.inject.config.Globals;
@@ -51,25 +53,35 @@ public final class Bootstrap {
 
 	public static Injector injector( Class<? extends Bundle> root, Bindings bindings,
 			Globals globals ) {
-		return injector( bindings, Link.BUILDIN, modulariser( globals ).modularise( root ) );
+		return injector( bindings, Link.BUILDIN,
+				modulariser( globals, bindings.getListener() ).modularise( root ) );
 	}
 
 	public static Injector injector( Bindings bindings, Linker<Suppliable<?>> linker,
 			Module[] modules ) {
-		return Inject.from( Suppliable.source( linker.link( bindings, modules ) ) );
+		final Suppliable<?>[] suppliables = linker.link( bindings, modules );
+		final Measure inject = Measure.start( bindings.getListener() );
+		final Injector injector = Inject.from( Suppliable.source( suppliables ) );
+		inject.completed( Phase.INJECT, null, suppliables.length );
+		return injector;
 	}
 
 	public static Modulariser modulariser( Globals globals ) {
-		return new BuildinBootstrapper( globals );
+		return modulariser( globals, BootstrapListener.SILENT );
+	}
+
+	public static Modulariser modulariser( Globals globals, BootstrapListener listener ) {
+		return new BuildinBootstrapper( globals, listener );
 	}
 
 	public static Bundler bundler( Globals globals ) {
-		return new BuildinBootstrapper( globals );
+		return new BuildinBootstrapper( globals, BootstrapListener.SILENT );
 	}
 
 	public static Suppliable<?>[] suppliables( Class<? extends Bundle> root, Bindings bindings,
 			Globals globals ) {
-		return Link.BUILDIN.link( bindings, modulariser( globals ).modularise( root ) );
+		return Link.BUILDIN.link( bindings,
+				modulariser( globals, bindings.getListener() ).modularise( root ) );
 	}
 
 	public static <T> Module module( PresetModule<T> module, Presets presets ) {
@@ -84,6 +96,16 @@ public final class Bootstrap {
 		}
 	}
 
+	/**
+	 * Like {@link #eagerSingletons(Injector)} but singletons that do not depend on each other are
+	 * initialized concurrently using the given {@link Executor}.
+	 * 
+	 * @return A report on the time spend to initialize each singleton.
+	 */
+	public static EagerSingletons eagerSingletons( Injector injector, Executor executor ) {
+		return EagerSingletons.initialize( injector, executor );
+	}
+
 	public static <T> T instance( Injectron<T> injectron ) {
 		return injectron.instanceFor( dependency( injectron.getResource().getInstance() ) );
 	}
@@ -132,10 +154,12 @@ public final class Bootstrap {
 		private final Set<Class<? extends Bundle>> installed = new HashSet<Class<? extends Bundle>>();
 		private final LinkedList<Class<? extends Bundle>> stack = new LinkedList<Class<? extends Bundle>>();
 		private final Globals globals;
+		private final BootstrapListener listener;
 
-		BuildinBootstrapper( Globals globals ) {
+		BuildinBootstrapper( Globals globals, BootstrapListener listener ) {
 			super();
 			this.globals = globals;
+			this.listener = listener;
 		}
 
 		@Override
@@ -157,11 +181,16 @@ public final class Bootstrap {
 				}
 				children.add( bundle );
 			}
+			final Measure bootstrap = Measure.start( listener );
 			stack.push( bundle );
 			Bootstrap.instance( bundle ).bootstrap( this );
 			if ( stack.pop() != bundle ) {
 				throw new IllegalStateException( bundle.getCanonicalName() );
 			}
+			List<Module> modules = bundleModules.get( bundle );
+			bootstrap.completed( Phase.BUNDLE, bundle, modules == null
+				? 0
+				: modules.size() );
 		}
 
 		@Override
@@ -223,7 +252,10 @@ public final class Bootstrap {
 
 		@Override
 		public Module[] modularise( Class<? extends Bundle> root ) {
-			return modulesOf( bundle( root ) );
+			final Measure modularise = Measure.start( listener );
+			final Module[] modules = modulesOf( bundle( root ) );
+			modularise.completed( Phase.MODULARISE, null, modules.length );
+			return modules;
 		}
 
 		@SuppressWarnings ( "unchecked" )
@@ -0,0 +1,86 @@
+/*
+ *  Copyright (c) 2012-2013, Jan Bernitt 
+ *			
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bootstrap;
+
+/**
+ * Is informed about the time and memory each {@link Phase} of the bootstrapping took.
+ * 
+ * A listener is opt-in and set using {@link Bindings#observedBy(BootstrapListener)}.
+ * 
+ * @see BootstrapProfiler
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+public interface BootstrapListener {
+
+	/**
+	 * The listener used when no other is set. It ignores all phases and causes no measurement to
+	 * happen at all.
+	 */
+	BootstrapListener SILENT = new BootstrapListener() {
+
+		@Override
+		public void completed( Phase phase, Class<?> subject, long nanos, long bytes, int items ) {
+			// ignored
+		}
+	};
+
+	/**
+	 * @param phase
+	 *            The phase that has been completed
+	 * @param subject
+	 *            The {@link Bundle} or {@link Module} class for {@link Phase#BUNDLE} and
+	 *            {@link Phase#MODULE}, <code>null</code> for all other phases.
+	 * @param nanos
+	 *            The wall time the phase took (including nested phases)
+	 * @param bytes
+	 *            The bytes allocated by the bootstrapping thread during the phase or
+	 *            <code>-1</code> if the JVM cannot tell
+	 * @param items
+	 *            The number of {@link Module}s, {@link Binding}s or the like resulting from the
+	 *            phase
+	 */
+	void completed( Phase phase, Class<?> subject, long nanos, long bytes, int items );
+
+	/**
+	 * The steps of the bootstrapping in the order they happen.
+	 * 
+	 * @author Jan Bernitt (jan@jbee.se)
+	 */
+	enum Phase {
+		/**
+		 * A single {@link Bundle} installed (including the bundles it installs); items are the
+		 * {@link Module}s installed directly.
+		 */
+		BUNDLE,
+		/**
+		 * All {@link Bundle}s resolved to {@link Module}s; items are the {@link Module}s.
+		 */
+		MODULARISE,
+		/**
+		 * A single {@link Module} declared its {@link Binding}s (including the expansion by
+		 * {@link Macros}); items are the {@link Binding}s added.
+		 */
+		MODULE,
+		/**
+		 * All {@link Module}s declared their {@link Binding}s; items are the {@link Binding}s.
+		 */
+		EXPAND,
+		/**
+		 * The {@link Binding}s are made unambiguous; items are the remaining {@link Binding}s.
+		 */
+		DISAMBIGUATE,
+		/**
+		 * The {@link Binding}s are linked to what the injector is created from; items are the
+		 * linked artifacts.
+		 */
+		LINK,
+		/**
+		 * The injector is created from the linked artifacts; items are these artifacts.
+		 */
+		INJECT
+	}
+}
@@ -0,0 +1,183 @@
+/*
+ *  Copyright (c) 2012-2013, Jan Bernitt 
+ *			
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bootstrap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A {@link BootstrapListener} that records all {@link Phase}s to report them as JSON (
+ * {@link #toJSON()}) or as a summary of the most expensive {@link Bundle}s and {@link Module}s (
+ * {@link #summary(int)}).
+ * 
+ * <pre>
+ * BootstrapProfiler profiler = new BootstrapProfiler();
+ * Bootstrap.injector( root, bindings( Macros.DEFAULT, Inspect.DEFAULT ).observedBy( profiler ), Globals.STANDARD );
+ * System.out.println( profiler.summary( 10 ) );
+ * </pre>
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+public final class BootstrapProfiler
+		implements BootstrapListener {
+
+	private static final Comparator<Record> SLOWEST_FIRST = new Comparator<Record>() {
+
+		@Override
+		public int compare( Record one, Record other ) {
+			return one.nanos > other.nanos
+				? -1
+				: one.nanos < other.nanos
+					? 1
+					: 0;
+		}
+	};
+
+	private final List<Record> records = new ArrayList<Record>();
+
+	@Override
+	public synchronized void completed( Phase phase, Class<?> subject, long nanos, long bytes,
+			int items ) {
+		records.add( new Record( phase, subject, nanos, bytes, items ) );
+	}
+
+	/**
+	 * @return The records of the given phase in the order they were completed.
+	 */
+	public synchronized List<Record> records( Phase phase ) {
+		List<Record> res = new ArrayList<Record>();
+		for ( Record r : records ) {
+			if ( r.phase == phase ) {
+				res.add( r );
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * @return The records of the given phase that took the most time, slowest first.
+	 */
+	public List<Record> slowest( Phase phase, int limit ) {
+		List<Record> res = records( phase );
+		Collections.sort( res, SLOWEST_FIRST );
+		return res.size() <= limit
+			? res
+			: res.subList( 0, limit );
+	}
+
+	/**
+	 * @return All records as a JSON object with a member for each {@link Phase} that has been
+	 *         recorded.
+	 */
+	public String toJSON() {
+		StringBuilder b = new StringBuilder();
+		b.append( '{' );
+		for ( Phase phase : Phase.values() ) {
+			List<Record> phaseRecords = records( phase );
+			if ( !phaseRecords.isEmpty() ) {
+				if ( b.length() > 1 ) {
+					b.append( ',' );
+				}
+				b.append( '"' ).append( phase.name().toLowerCase() ).append( "\":[" );
+				for ( int i = 0; i < phaseRecords.size(); i++ ) {
+					if ( i > 0 ) {
+						b.append( ',' );
+					}
+					phaseRecords.get( i ).toJSON( b );
+				}
+				b.append( ']' );
+			}
+		}
+		return b.append( '}' ).toString();
+	}
+
+	/**
+	 * @return A human readable summary listing the total of each {@link Phase} followed by the
+	 *         top {@link Bundle}s and {@link Module}s that took the most time.
+	 */
+	public String summary( int top ) {
+		StringBuilder b = new StringBuilder();
+		for ( Phase phase : Phase.values() ) {
+			if ( phase != Phase.BUNDLE && phase != Phase.MODULE ) {
+				for ( Record r : records( phase ) ) {
+					b.append( r ).append( '\n' );
+				}
+			}
+		}
+		appendSlowest( b, Phase.BUNDLE, top );
+		appendSlowest( b, Phase.MODULE, top );
+		return b.toString();
+	}
+
+	private void appendSlowest( StringBuilder b, Phase phase, int top ) {
+		List<Record> slowest = slowest( phase, top );
+		if ( !slowest.isEmpty() ) {
+			b.append( "slowest " ).append( phase.name().toLowerCase() ).append( "s:\n" );
+			for ( Record r : slowest ) {
+				b.append( '\t' ).append( r ).append( '\n' );
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return summary( 10 );
+	}
+
+	/**
+	 * A single {@link Phase} completed.
+	 * 
+	 * @author Jan Bernitt (jan@jbee.se)
+	 */
+	public static final class Record {
+
+		public final Phase phase;
+		/**
+		 * The {@link Bundle} or {@link Module} class or <code>null</code> if the record is about
+		 * a whole phase.
+		 */
+		public final Class<?> subject;
+		public final long nanos;
+		public final long bytes;
+		public final int items;
+
+		Record( Phase phase, Class<?> subject, long nanos, long bytes, int items ) {
+			super();
+			this.phase = phase;
+			this.subject = subject;
+			this.nanos = nanos;
+			this.bytes = bytes;
+			this.items = items;
+		}
+
+		void toJSON( StringBuilder b ) {
+			b.append( '{' );
+			if ( subject != null ) {
+				b.append( "\"subject\":\"" ).append( subject.getName() ).append( "\"," );
+			}
+			b.append( "\"nanos\":" ).append( nanos );
+			b.append( ",\"bytes\":" ).append( bytes );
+			b.append( ",\"items\":" ).append( items );
+			b.append( '}' );
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder b = new StringBuilder();
+			b.append( subject == null
+				? phase.name()
+				: subject.getName() );
+			b.append( ' ' ).append( nanos / 1000000d ).append( " ms" );
+			if ( bytes >= 0L ) {
+				b.append( ' ' ).append( bytes ).append( " bytes" );
+			}
+			b.append( ' ' ).append( items ).append( " items" );
+			return b.toString();
+		}
+	}
+}
@@ -49,6 +49,13 @@ public final class Configuring<T>
 		return value;
 	}
 
+	/**
+	 * @return true, if the names are derived using the given {@link Naming} strategy.
+	 */
+	boolean isNamedBy( Naming<?> naming ) {
+		return this.naming == naming;
+	}
+
 	@Override
 	public Name name( T value ) {
 		return naming.name( value );
@@ -0,0 +1,347 @@
+/*
+ *  Copyright (c) 2012-2013, Jan Bernitt 
+ *			
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bootstrap;
+
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.util.Typecast.injectronTypeOf;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import se.jbee.inject.DIRuntimeException;
+import se.jbee.inject.Injector;
+import se.jbee.inject.Injectron;
+import se.jbee.inject.Type;
+import se.jbee.inject.util.Dependent;
+import se.jbee.inject.util.Inject;
+
+/**
+ * The result of initializing all singletons ({@link Injectron}s that never expire) of an
+ * {@link Injector} concurrently.
+ * 
+ * The order is derived from the {@link Dependent#dependencies()} of the singletons: a singleton is
+ * initialized when all the singletons it depends upon are done. Independent singletons are
+ * initialized at the same time. Dependencies that are not known (or are not resolved the way they
+ * were declared, e.g. because of names or targets) just cause the dependency to be created
+ * on demand or to be waited for by the singleton that needs it. Singletons that (indirectly)
+ * depend on themselves are initialized one after another on the calling thread after all others
+ * are done.
+ * 
+ * @see Bootstrap#eagerSingletons(Injector, Executor)
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+public final class EagerSingletons {
+
+	static EagerSingletons initialize( Injector injector, Executor executor ) {
+		List<Singleton> singletons = singletonsOf( injector );
+		List<Singleton> ordered = new ArrayList<Singleton>();
+		List<Singleton> cyclic = new ArrayList<Singleton>();
+		for ( Singleton s : singletons ) {
+			if ( s.isCyclic() ) {
+				cyclic.add( s );
+			} else {
+				ordered.add( s );
+			}
+		}
+		CountDownLatch done = new CountDownLatch( ordered.size() );
+		AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+		List<Singleton> roots = new ArrayList<Singleton>();
+		for ( Singleton s : ordered ) {
+			s.prepare( executor, done, failure );
+			if ( s.pending.get() == 0 ) {
+				roots.add( s );
+			}
+		}
+		for ( Singleton s : roots ) {
+			s.schedule();
+		}
+		try {
+			done.await();
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new DIRuntimeException( "Interrupted while waiting for singletons to initialize" );
+		}
+		for ( Singleton s : cyclic ) {
+			s.prepare( executor, null, failure );
+			s.run(); // outside of the derived order: created on demand
+		}
+		if ( failure.get() != null ) {
+			throw failure.get();
+		}
+		return new EagerSingletons( singletons );
+	}
+
+	private static List<Singleton> singletonsOf( Injector injector ) {
+		Map<Injectron<?>, Singleton> singletons = new IdentityHashMap<Injectron<?>, Singleton>();
+		List<Singleton> res = new ArrayList<Singleton>();
+		for ( Injectron<?> i : injector.resolve( dependency( Injectron[].class ) ) ) {
+			if ( i.getExpiry().isNever() ) {
+				Singleton s = new Singleton( i );
+				singletons.put( i, s );
+				res.add( s );
+			}
+		}
+		for ( Singleton s : res ) {
+			for ( Type<?> type : Inject.dependenciesOf( s.injectron ) ) {
+				Singleton dependency = singletons.get( injectronFor( injector, type, s.injectron ) );
+				if ( dependency != null && dependency != s ) {
+					s.dependsOn( dependency );
+				}
+			}
+		}
+		markCycles( res );
+		return res;
+	}
+
+	private static <T> Injectron<T> injectronFor( Injector injector, Type<T> type,
+			Injectron<?> target ) {
+		try {
+			return injector.resolve( dependency( injectronTypeOf( type ) ).injectingInto(
+					target.getResource().getInstance() ) );
+		} catch ( DIRuntimeException e ) {
+			return null; // not a singleton we know how to order
+		}
+	}
+
+	/**
+	 * Singletons that cannot be put in order since they (indirectly) depend on themselves are
+	 * taken out of the derived order so that the others still can be ordered.
+	 */
+	private static void markCycles( List<Singleton> singletons ) {
+		Map<Singleton, Integer> pending = new IdentityHashMap<Singleton, Integer>();
+		List<Singleton> ordered = new ArrayList<Singleton>();
+		for ( Singleton s : singletons ) {
+			pending.put( s, s.dependencies.size() );
+			if ( s.dependencies.isEmpty() ) {
+				ordered.add( s );
+			}
+		}
+		for ( int i = 0; i < ordered.size(); i++ ) {
+			for ( Singleton dependent : ordered.get( i ).dependents ) {
+				int p = pending.get( dependent ) - 1;
+				pending.put( dependent, p );
+				if ( p == 0 ) {
+					ordered.add( dependent );
+				}
+			}
+		}
+		if ( ordered.size() == singletons.size() ) {
+			return;
+		}
+		for ( Singleton s : singletons ) {
+			if ( pending.get( s ) > 0 ) {
+				s.cyclic = true;
+			}
+		}
+		for ( Singleton s : singletons ) {
+			if ( s.cyclic ) {
+				for ( Singleton dependent : s.dependents ) {
+					dependent.dependencies.remove( s );
+				}
+				for ( Singleton dependency : s.dependencies ) {
+					dependency.dependents.remove( s );
+				}
+				s.dependencies.clear();
+				s.dependents.clear();
+			}
+		}
+	}
+
+	private final Singleton[] singletons;
+	private final Singleton[] criticalPath;
+
+	private EagerSingletons( List<Singleton> singletons ) {
+		super();
+		this.singletons = singletons.toArray( new Singleton[singletons.size()] );
+		this.criticalPath = criticalPathOf( this.singletons );
+	}
+
+	/**
+	 * @return The number of singletons initialized.
+	 */
+	public int count() {
+		return singletons.length;
+	}
+
+	/**
+	 * @return The nanoseconds it took to initialize the given singleton after all singletons it
+	 *         depends upon had been initialized or <code>-1</code> if it is not a singleton
+	 *         initialized.
+	 */
+	public long nanos( Injectron<?> singleton ) {
+		for ( Singleton s : singletons ) {
+			if ( s.injectron == singleton ) {
+				return s.nanos;
+			}
+		}
+		return -1L;
+	}
+
+	/**
+	 * @return The chain of singletons depending on each other that took the longest to
+	 *         initialize, starting with the one that has no further dependencies. Initialization
+	 *         cannot complete faster than this chain however many threads are used.
+	 */
+	public Injectron<?>[] criticalPath() {
+		Injectron<?>[] res = new Injectron<?>[criticalPath.length];
+		for ( int i = 0; i < res.length; i++ ) {
+			res[i] = criticalPath[i].injectron;
+		}
+		return res;
+	}
+
+	/**
+	 * @return The sum of the initialization nanoseconds of the {@link #criticalPath()}.
+	 */
+	public long criticalPathNanos() {
+		return criticalPath.length == 0
+			? 0L
+			: criticalPath[criticalPath.length - 1].pathNanos;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder b = new StringBuilder();
+		for ( Singleton s : singletons ) {
+			b.append( s ).append( '\n' );
+		}
+		b.append( "critical path (" ).append( millis( criticalPathNanos() ) ).append( " ms):" );
+		for ( Singleton s : criticalPath ) {
+			b.append( "\n\t" ).append( s );
+		}
+		return b.toString();
+	}
+
+	private static String millis( long nanos ) {
+		return String.valueOf( nanos / 1000000d );
+	}
+
+	private static Singleton[] criticalPathOf( Singleton[] singletons ) {
+		Singleton last = null;
+		for ( Singleton s : singletons ) {
+			long pathNanos = pathNanos( s );
+			if ( last == null || pathNanos > last.pathNanos ) {
+				last = s;
+			}
+		}
+		List<Singleton> path = new ArrayList<Singleton>();
+		while ( last != null ) {
+			path.add( 0, last );
+			last = last.longestDependency();
+		}
+		return path.toArray( new Singleton[path.size()] );
+	}
+
+	private static long pathNanos( Singleton s ) {
+		if ( s.pathNanos < 0L ) {
+			long longest = 0L;
+			for ( Singleton dependency : s.dependencies ) {
+				longest = Math.max( longest, pathNanos( dependency ) );
+			}
+			s.pathNanos = longest + s.nanos;
+		}
+		return s.pathNanos;
+	}
+
+	/**
+	 * The node of a single {@link Injectron} within the dependency graph of all singletons.
+	 */
+	private static final class Singleton
+			implements Runnable {
+
+		final Injectron<?> injectron;
+		final Set<Singleton> dependencies = new LinkedHashSet<Singleton>();
+		final Set<Singleton> dependents = new LinkedHashSet<Singleton>();
+		final AtomicInteger pending = new AtomicInteger();
+		boolean cyclic;
+		volatile long nanos;
+		long pathNanos = -1L;
+
+		private Executor executor;
+		private CountDownLatch done;
+		private AtomicReference<RuntimeException> failure;
+
+		Singleton( Injectron<?> injectron ) {
+			super();
+			this.injectron = injectron;
+		}
+
+		void dependsOn( Singleton dependency ) {
+			if ( dependencies.add( dependency ) ) {
+				dependency.dependents.add( this );
+			}
+		}
+
+		void prepare( Executor executor, CountDownLatch done,
+				AtomicReference<RuntimeException> failure ) {
+			this.executor = executor;
+			this.done = done;
+			this.failure = failure;
+			pending.set( dependencies.size() );
+		}
+
+		boolean isCyclic() {
+			return cyclic;
+		}
+
+		/**
+		 * Runs the singleton on the {@link Executor} or on the current thread should the
+		 * {@link Executor} reject it so that the initialization is not stuck waiting for it.
+		 */
+		void schedule() {
+			try {
+				executor.execute( this );
+			} catch ( RejectedExecutionException e ) {
+				run();
+			}
+		}
+
+		@Override
+		public void run() {
+			final long start = System.nanoTime();
+			try {
+				Bootstrap.instance( injectron );
+			} catch ( RuntimeException e ) {
+				failure.compareAndSet( null, e );
+			} finally {
+				nanos = System.nanoTime() - start;
+				if ( done != null ) {
+					done.countDown();
+				}
+				for ( Singleton dependent : dependents ) {
+					if ( dependent.pending.decrementAndGet() == 0 ) {
+						dependent.schedule();
+					}
+				}
+			}
+		}
+
+		Singleton longestDependency() {
+			Singleton longest = null;
+			for ( Singleton dependency : dependencies ) {
+				if ( longest == null || dependency.pathNanos > longest.pathNanos ) {
+					longest = dependency;
+				}
+			}
+			return longest;
+		}
+
+		@Override
+		public String toString() {
+			return injectron.getResource() + " " + millis( nanos ) + " ms";
+		}
+	}
+}
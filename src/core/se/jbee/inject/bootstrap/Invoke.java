@@ -5,9 +5,15 @@
  */
 package se.jbee.inject.bootstrap;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import se.jbee.inject.bootstrap.Invoker.Invocable;
 
 /**
  * A util to invoke {@link Constructor}s or {@link Method}s that converts checked {@link Exception}s
@@ -17,6 +23,18 @@ import java.lang.reflect.Method;
  */
 public final class Invoke {
 
+	/**
+	 * Calls {@link Constructor#newInstance(Object...)} and {@link Method#invoke(Object, Object...)}.
+	 * This is the default.
+	 */
+	public static final Invoker REFLECTION = new ReflectionInvoker();
+
+	/**
+	 * Unreflects {@link Constructor}s and {@link Method}s to {@link MethodHandle}s once so that
+	 * each call is a plain invocation of the handle.
+	 */
+	public static final Invoker METHOD_HANDLES = new MethodHandleInvoker();
+
 	private Invoke() {
 		throw new UnsupportedOperationException( "util" );
 	}
@@ -44,4 +62,195 @@ public final class Invoke {
 		}
 	}
 
+	/**
+	 * The exception contract shared by all {@link Invocable}s: {@link RuntimeException}s and
+	 * {@link Error}s thrown by the invoked constructor or method are rethrown as they are,
+	 * checked exceptions are wrapped in a {@link RuntimeException}.
+	 */
+	private static RuntimeException failed( Constructor<?> constructor, Throwable e ) {
+		rethrowUnchecked( e );
+		return new RuntimeException( "Failed to invoke constructor: " + constructor, e );
+	}
+
+	private static RuntimeException failed( Method method, Throwable e ) {
+		rethrowUnchecked( e );
+		return new RuntimeException( "Failed to invoke method: " + method + " \n"
+				+ e.getMessage(), e );
+	}
+
+	private static void rethrowUnchecked( Throwable e ) {
+		if ( e instanceof RuntimeException ) {
+			throw (RuntimeException) e;
+		}
+		if ( e instanceof Error ) {
+			throw (Error) e;
+		}
+	}
+
+	private static final class ReflectionInvoker
+			implements Invoker {
+
+		ReflectionInvoker() {
+			// make visible
+		}
+
+		@Override
+		public <T> Invocable<T> constructor( Constructor<T> constructor ) {
+			return new ReflectiveConstructor<T>( constructor );
+		}
+
+		@Override
+		public Invocable<?> method( Method method ) {
+			return new ReflectiveMethod( method );
+		}
+
+		@Override
+		public String toString() {
+			return "reflection";
+		}
+	}
+
+	private static final class ReflectiveConstructor<T>
+			implements Invocable<T> {
+
+		private final Constructor<T> constructor;
+
+		ReflectiveConstructor( Constructor<T> constructor ) {
+			super();
+			this.constructor = constructor;
+		}
+
+		@Override
+		public T invoke( Object owner, Object... args ) {
+			try {
+				return constructor.newInstance( args );
+			} catch ( InvocationTargetException e ) {
+				throw failed( constructor, e.getTargetException() );
+			} catch ( Exception e ) {
+				throw failed( constructor, e );
+			}
+		}
+
+	}
+
+	private static final class ReflectiveMethod
+			implements Invocable<Object> {
+
+		private final Method method;
+
+		ReflectiveMethod( Method method ) {
+			super();
+			this.method = method;
+		}
+
+		@Override
+		public Object invoke( Object owner, Object... args ) {
+			try {
+				return method.invoke( owner, args );
+			} catch ( InvocationTargetException e ) {
+				throw failed( method, e.getTargetException() );
+			} catch ( Exception e ) {
+				throw failed( method, e );
+			}
+		}
+
+	}
+
+	private static final class MethodHandleInvoker
+			implements Invoker {
+
+		/**
+		 * The uniform type all handles are adapted to: <code>(owner, args) -> result</code>.
+		 */
+		private static final MethodType INVOCABLE = MethodType.methodType( Object.class,
+				Object.class, Object[].class );
+
+		MethodHandleInvoker() {
+			// make visible
+		}
+
+		@Override
+		public <T> Invocable<T> constructor( Constructor<T> constructor ) {
+			try {
+				MethodHandle handle = MethodHandles.lookup().unreflectConstructor( constructor );
+				handle = MethodHandles.dropArguments( spread( handle, 0 ), 0, Object.class );
+				return new MethodHandleConstructor<T>( constructor,
+						handle.asType( INVOCABLE ) );
+			} catch ( IllegalAccessException e ) {
+				throw new RuntimeException( e );
+			}
+		}
+
+		@Override
+		public Invocable<?> method( Method method ) {
+			try {
+				MethodHandle handle = MethodHandles.lookup().unreflect( method );
+				if ( Modifier.isStatic( method.getModifiers() ) ) {
+					handle = MethodHandles.dropArguments( spread( handle, 0 ), 0, Object.class );
+				} else {
+					handle = spread( handle, 1 );
+				}
+				return new MethodHandleMethod( method, handle.asType( INVOCABLE ) );
+			} catch ( IllegalAccessException e ) {
+				throw new RuntimeException( e );
+			}
+		}
+
+		private static MethodHandle spread( MethodHandle handle, int leading ) {
+			return handle.asSpreader( Object[].class, handle.type().parameterCount() - leading );
+		}
+
+		@Override
+		public String toString() {
+			return "method-handles";
+		}
+	}
+
+	private static final class MethodHandleConstructor<T>
+			implements Invocable<T> {
+
+		private final Constructor<T> constructor;
+		private final MethodHandle handle;
+
+		MethodHandleConstructor( Constructor<T> constructor, MethodHandle handle ) {
+			super();
+			this.constructor = constructor;
+			this.handle = handle;
+		}
+
+		@SuppressWarnings ( "unchecked" )
+		@Override
+		public T invoke( Object owner, Object... args ) {
+			try {
+				return (T) (Object) handle.invokeExact( owner, args );
+			} catch ( Throwable e ) {
+				throw failed( constructor, e );
+			}
+		}
+
+	}
+
+	private static final class MethodHandleMethod
+			implements Invocable<Object> {
+
+		private final Method method;
+		private final MethodHandle handle;
+
+		MethodHandleMethod( Method method, MethodHandle handle ) {
+			super();
+			this.method = method;
+			this.handle = handle;
+		}
+
+		@Override
+		public Object invoke( Object owner, Object... args ) {
+			try {
+				return (Object) handle.invokeExact( owner, args );
+			} catch ( Throwable e ) {
+				throw failed( method, e );
+			}
+		}
+
+	}
+
 }
@@ -0,0 +1,50 @@
+/*
+ *  Copyright (c) 2012-2013, Jan Bernitt 
+ *			
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bootstrap;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+import se.jbee.inject.util.Constructible;
+import se.jbee.inject.util.Producible;
+
+/**
+ * A strategy how the {@link Constructor}s of {@link Constructible}s and the {@link Method}s of
+ * {@link Producible}s are invoked.
+ * 
+ * The {@link Invocable}s are prepared once when a supplier is created so that the work needed to
+ * setup a call is not repeated for each instance supplied.
+ * 
+ * All strategies throw the same: {@link RuntimeException}s and {@link Error}s of the invoked
+ * constructor or method as they are and checked exceptions wrapped in a {@link RuntimeException}.
+ * 
+ * @see Invoke#REFLECTION
+ * @see Invoke#METHOD_HANDLES
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+public interface Invoker {
+
+	<T> Invocable<T> constructor( Constructor<T> constructor );
+
+	Invocable<?> method( Method method );
+
+	/**
+	 * A prepared call of a {@link Constructor} or {@link Method}.
+	 * 
+	 * @author Jan Bernitt (jan@jbee.se)
+	 */
+	interface Invocable<T> {
+
+		/**
+		 * @param owner
+		 *            The instance to call a instance {@link Method} on; ignored for constructors
+		 *            and static methods
+		 * @return The created instance or the result of the method call.
+		 */
+		T invoke( Object owner, Object... args );
+	}
+}
@@ -5,12 +5,18 @@
  */
 package se.jbee.inject.bootstrap;
 
+import static se.jbee.inject.Resource.resource;
+import static se.jbee.inject.Source.source;
+
+import java.util.Arrays;
 import java.util.IdentityHashMap;
 import java.util.Map;
 
 import se.jbee.inject.Expiry;
 import se.jbee.inject.Repository;
 import se.jbee.inject.Scope;
+import se.jbee.inject.bootstrap.BootstrapListener.Phase;
+import se.jbee.inject.util.InjectorMetrics;
 import se.jbee.inject.util.Scoped;
 import se.jbee.inject.util.Suppliable;
 
@@ -23,6 +29,16 @@ public final class Link {
 
 	public static final Linker<Suppliable<?>> BUILDIN = linker( defaultExpiration() );
 
+	/**
+	 * @return A {@link Linker} that measures all {@link Suppliable}s linked by the given
+	 *         {@link Linker} using the given {@link InjectorMetrics}. The {@link InjectorMetrics}
+	 *         itself is bound so it can be resolved from the {@link se.jbee.inject.Injector}.
+	 */
+	public static Linker<Suppliable<?>> metered( Linker<Suppliable<?>> linker,
+			InjectorMetrics metrics ) {
+		return new MeteredLinker( linker, metrics );
+	}
+
 	private static Linker<Suppliable<?>> linker( Map<Scope, Expiry> expiryByScope ) {
 		return new SuppliableLinker( expiryByScope );
 	}
@@ -42,6 +58,29 @@ public final class Link {
 		throw new UnsupportedOperationException( "util" );
 	}
 
+	private static final class MeteredLinker
+			implements Linker<Suppliable<?>> {
+
+		private final Linker<Suppliable<?>> linker;
+		private final InjectorMetrics metrics;
+
+		MeteredLinker( Linker<Suppliable<?>> linker, InjectorMetrics metrics ) {
+			super();
+			this.linker = linker;
+			this.metrics = metrics;
+		}
+
+		@Override
+		public Suppliable<?>[] link( Bindings bindings, Module... modules ) {
+			Suppliable<?>[] linked = metrics.instrument( linker.link( bindings, modules ) );
+			Suppliable<?>[] res = Arrays.copyOf( linked, linked.length + 1 );
+			res[linked.length] = new Suppliable<InjectorMetrics>( resource( InjectorMetrics.class ),
+					SuppliedBy.constant( metrics ), Scoped.INJECTION.init(), Expiry.NEVER,
+					source( InjectorMetrics.class ) );
+			return res;
+		}
+	}
+
 	private static class SuppliableLinker
 			implements Linker<Suppliable<?>> {
 
@@ -54,7 +93,14 @@ public final class Link {
 
 		@Override
 		public Suppliable<?>[] link( Bindings bindings, Module... modules ) {
-			return link( Binding.disambiguate( bindings.expand( modules ) ) );
+			final Binding<?>[] expanded = bindings.expand( modules );
+			final Measure disambiguate = Measure.start( bindings.getListener() );
+			final Binding<?>[] unambiguous = Binding.disambiguate( expanded );
+			disambiguate.completed( Phase.DISAMBIGUATE, null, unambiguous.length );
+			final Measure link = Measure.start( bindings.getListener() );
+			final Suppliable<?>[] suppliables = link( unambiguous );
+			link.completed( Phase.LINK, null, suppliables.length );
+			return suppliables;
 		}
 
 		private Suppliable<?>[] link( Binding<?>[] bindings ) {
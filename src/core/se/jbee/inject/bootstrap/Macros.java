@@ -40,9 +40,9 @@ public final class Macros {
 	public static final Macros EMPTY = new Macros( new Class<?>[0], new Macro<?>[0] );
 
 	public static final Macro<Binding<?>> EXPAND = new ExpandMacro();
-	public static final Macro<Constructible<?>> CONSTRUCT = new ConstructorMacro();
+	public static final Macro<Constructible<?>> CONSTRUCT = construct( Invoke.REFLECTION );
 	public static final Macro<Instance<?>> SUBSTITUTE = new SubstitutionMacro();
-	public static final Macro<Producible<?>> PRODUCE = new MethodMacro();
+	public static final Macro<Producible<?>> PRODUCE = produce( Invoke.REFLECTION );
 	public static final Macro<Configuring<?>> CONFIGURE = new ConfigurationMacro();
 	public static final Macro<Class<?>> FORWARD = new ForwardMacro();
 	public static final Macro<Parameter<?>[]> ARRAY = new ArrayElementsMacro();
@@ -52,6 +52,14 @@ public final class Macros {
 	public static final Macros DEFAULT = Macros.EMPTY.use( EXPAND ).use( CONSTRUCT ).use( PRODUCE ).use(
 			SUBSTITUTE ).use( CONFIGURE ).use( FORWARD ).use( ARRAY );
 
+	public static Macro<Constructible<?>> construct( Invoker invoker ) {
+		return new ConstructorMacro( invoker );
+	}
+
+	public static Macro<Producible<?>> produce( Invoker invoker ) {
+		return new MethodMacro( invoker );
+	}
+
 	public static Module macro( Module mandatory, Module optional ) {
 		return optional == null || optional == NO_OP
 			? mandatory
@@ -101,6 +109,20 @@ public final class Macros {
 		return new Macros( Array.insert( types, type, index ), Array.insert( macros, macro, index ) );
 	}
 
+	/**
+	 * Uses the {@link #construct(Invoker)} and {@link #produce(Invoker)} {@link Macro}s of the
+	 * given {@link Invoker}.
+	 * 
+	 * @param invoker
+	 *            The strategy used to call {@link Constructible}s and {@link Producible}s, e.g.
+	 *            {@link Invoke#METHOD_HANDLES}
+	 * @return A set of {@link Macros} whose {@link Constructible}s and {@link Producible}s are
+	 *         invoked by the given {@link Invoker}
+	 */
+	public Macros invokedBy( Invoker invoker ) {
+		return use( construct( invoker ) ).use( produce( invoker ) );
+	}
+
 	/**
 	 * A generic version of {@link Macro#expand(Binding, Object)} that uses the matching predefined
 	 * {@link Macro} for the actual type of the value and expands it.
@@ -175,14 +197,17 @@ public final class Macros {
 	private static final class ConstructorMacro
 			implements Macro<Constructible<?>> {
 
-		ConstructorMacro() {
-			// make visible
+		private final Invoker invoker;
+
+		ConstructorMacro( Invoker invoker ) {
+			super();
+			this.invoker = invoker;
 		}
 
 		@Override
 		public <T> Module expand( Binding<T> binding, Constructible<?> constructible ) {
 			return binding.suppliedBy( CONSTRUCTOR,
-					SuppliedBy.costructor( constructible.typed( binding.getType() ) ) );
+					SuppliedBy.costructor( constructible.typed( binding.getType() ), invoker ) );
 		}
 
 	}
@@ -190,14 +215,17 @@ public final class Macros {
 	private static final class MethodMacro
 			implements Macro<Producible<?>> {
 
-		MethodMacro() {
-			// make visible
+		private final Invoker invoker;
+
+		MethodMacro( Invoker invoker ) {
+			super();
+			this.invoker = invoker;
 		}
 
 		@Override
 		public <T> Module expand( Binding<T> binding, Producible<?> producible ) {
 			return binding.suppliedBy( METHOD,
-					SuppliedBy.method( producible.typed( binding.getType() ) ) );
+					SuppliedBy.method( producible.typed( binding.getType() ), invoker ) );
 		}
 
 	}
@@ -0,0 +1,101 @@
+/*
+ *  Copyright (c) 2012-2013, Jan Bernitt 
+ *			
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bootstrap;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+
+import se.jbee.inject.bootstrap.BootstrapListener.Phase;
+
+/**
+ * Measures a {@link Phase} for a {@link BootstrapListener}.
+ * 
+ * Nothing is measured for the {@link BootstrapListener#SILENT} listener.
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+final class Measure {
+
+	private static final Measure NONE = new Measure( BootstrapListener.SILENT, 0L, 0L );
+
+	static Measure start( BootstrapListener listener ) {
+		return listener == BootstrapListener.SILENT
+			? NONE
+			: new Measure( listener, System.nanoTime(), AllocatedBytes.ofCurrentThread() );
+	}
+
+	/**
+	 * Looks up the bean telling the bytes allocated by a thread when the first non-silent
+	 * {@link Measure} is started. It is accessed reflectively since it is not part of every JVM.
+	 */
+	private static final class AllocatedBytes {
+
+		private static final Object THREADS = threads();
+		private static final Method GET_ALLOCATED_BYTES = getAllocatedBytes();
+
+		private static Object threads() {
+			try {
+				Object threads = ManagementFactory.getThreadMXBean();
+				Class<?> type = Class.forName( "com.sun.management.ThreadMXBean" );
+				if ( type.isInstance( threads )
+						&& (Boolean) type.getMethod( "isThreadAllocatedMemorySupported" ).invoke( threads )
+						&& (Boolean) type.getMethod( "isThreadAllocatedMemoryEnabled" ).invoke( threads ) ) {
+					return threads;
+				}
+			} catch ( Exception e ) {
+				// not a JVM that can tell
+			} catch ( LinkageError e ) {
+				// not a JVM that can tell
+			}
+			return null;
+		}
+
+		private static Method getAllocatedBytes() {
+			if ( THREADS == null ) {
+				return null;
+			}
+			try {
+				return Class.forName( "com.sun.management.ThreadMXBean" ).getMethod(
+						"getThreadAllocatedBytes", long.class );
+			} catch ( Exception e ) {
+				return null;
+			}
+		}
+
+		static long ofCurrentThread() {
+			if ( GET_ALLOCATED_BYTES == null ) {
+				return -1L;
+			}
+			try {
+				return (Long) GET_ALLOCATED_BYTES.invoke( THREADS, Thread.currentThread().getId() );
+			} catch ( Exception e ) {
+				return -1L;
+			}
+		}
+	}
+
+	private final BootstrapListener listener;
+	private final long startNanos;
+	private final long startBytes;
+
+	private Measure( BootstrapListener listener, long startNanos, long startBytes ) {
+		super();
+		this.listener = listener;
+		this.startNanos = startNanos;
+		this.startBytes = startBytes;
+	}
+
+	void completed( Phase phase, Class<?> subject, int items ) {
+		if ( this == NONE ) {
+			return;
+		}
+		final long nanos = System.nanoTime() - startNanos;
+		final long bytes = startBytes < 0L
+			? -1L
+			: AllocatedBytes.ofCurrentThread() - startBytes;
+		listener.completed( phase, subject, nanos, bytes, items );
+	}
+}
@@ -9,6 +9,7 @@ import static se.jbee.inject.Instance.anyOf;
 import static se.jbee.inject.Type.parameterTypes;
 import static se.jbee.inject.bootstrap.Parameterize.parameterizations;
 import static se.jbee.inject.util.ToString.describe;
+import static se.jbee.inject.util.Typecast.injectronTypeOf;
 
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
@@ -16,17 +17,24 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Logger;
 
 import se.jbee.inject.Array;
-import se.jbee.inject.DIRuntimeException.NoSuchResourceException;
 import se.jbee.inject.Dependency;
 import se.jbee.inject.Injector;
+import se.jbee.inject.Injectron;
 import se.jbee.inject.Instance;
+import se.jbee.inject.Name;
 import se.jbee.inject.Parameter;
 import se.jbee.inject.Supplier;
+import se.jbee.inject.Target;
 import se.jbee.inject.Type;
+import se.jbee.inject.bootstrap.Invoker.Invocable;
 import se.jbee.inject.util.Constructible;
+import se.jbee.inject.util.Dependent;
 import se.jbee.inject.util.Factory;
 import se.jbee.inject.util.Metaclass;
 import se.jbee.inject.util.Parameterization;
@@ -79,11 +87,19 @@ public final class SuppliedBy {
 	}
 
 	public static <T> Supplier<T> method( Producible<T> producible ) {
-		return new MethodSupplier<T>( producible );
+		return method( producible, Invoke.REFLECTION );
+	}
+
+	public static <T> Supplier<T> method( Producible<T> producible, Invoker invoker ) {
+		return new MethodSupplier<T>( producible, invoker );
 	}
 
 	public static <T> Supplier<T> costructor( Constructible<T> constructible ) {
-		return new ConstructorSupplier<T>( constructible );
+		return costructor( constructible, Invoke.REFLECTION );
+	}
+
+	public static <T> Supplier<T> costructor( Constructible<T> constructible, Invoker invoker ) {
+		return new ConstructorSupplier<T>( constructible, invoker );
 	}
 
 	public static <T> Supplier<T> factory( Factory<T> factory ) {
@@ -114,6 +130,14 @@ public final class SuppliedBy {
 		return param.supply( parent.instanced( anyOf( param.getType() ) ), injector );
 	}
 
+	static Type<?>[] typesOf( Parameterization<?>[] params ) {
+		Type<?>[] types = new Type<?>[params.length];
+		for ( int i = 0; i < params.length; i++ ) {
+			types[i] = params[i].getType();
+		}
+		return types;
+	}
+
 	private SuppliedBy() {
 		throw new UnsupportedOperationException( "util" );
 	}
@@ -143,6 +167,11 @@ public final class SuppliedBy {
 	 * {@link Configuring} value. This can be understand as a dynamic <i>name</i> switch so that a
 	 * call is resolved to different named instances.
 	 * 
+	 * For the {@link Configuring#ENUM} and {@link Configuring#TO_STRING} naming the
+	 * {@link Injectron} a value switches to is looked up once and remembered in a table indexed by
+	 * the enum's ordinal (or hashed by the value for other types). This is only done when none of
+	 * the candidate {@link Injectron}s is targeted so that the choice just depends on the value.
+	 * 
 	 * @author Jan Bernitt (jan@jbee.se)
 	 */
 	private static final class ConfigurationDependentSupplier<T, C>
@@ -150,6 +179,10 @@ public final class SuppliedBy {
 
 		private final Type<T> type;
 		private final Configuring<C> configuration;
+		private final ConcurrentMap<Object, Switch<T>> byValue = new ConcurrentHashMap<Object, Switch<T>>();
+		private volatile AtomicReferenceArray<Switch<T>> byOrdinal;
+		private volatile Switch<T> byNull;
+		private volatile Boolean switchable;
 
 		ConfigurationDependentSupplier( Type<T> type, Configuring<C> configuration ) {
 			super();
@@ -160,18 +193,104 @@ public final class SuppliedBy {
 		@Override
 		public T supply( Dependency<? super T> dependency, Injector injector ) {
 			final C value = injector.resolve( dependency.instanced( configuration.getInstance() ) );
-			return supply( dependency, injector, value );
+			if ( !isSwitchable( injector ) ) {
+				return supply( dependency, injector, value );
+			}
+			Switch<T> to = switchTo( dependency, injector, value );
+			if ( to.injectron == null && value != null ) {
+				to = switchTo( dependency, injector, null );
+			}
+			if ( to.injectron == null ) {
+				return injector.resolve( dependency.instanced( to.instance ) );
+			}
+			return to.injectron.instanceFor( dependency.instanced( to.instance ) );
 		}
 
 		private T supply( Dependency<? super T> dependency, Injector injector, final C value ) {
 			final Instance<T> current = Instance.instance( configuration.name( value ), type );
-			try {
+			if ( value == null ) {
 				return injector.resolve( dependency.instanced( current ) );
-			} catch ( NoSuchResourceException e ) {
-				return supply( dependency, injector, null );
 			}
+			final T res = injector.tryResolve( dependency.instanced( current ) );
+			return res != null
+				? res
+				: supply( dependency, injector, null );
+		}
+
+		private boolean isSwitchable( Injector injector ) {
+			Boolean res = switchable;
+			if ( res == null ) {
+				res = configuration.isNamedBy( Configuring.ENUM )
+						|| configuration.isNamedBy( Configuring.TO_STRING );
+				if ( res ) {
+					for ( Injectron<?> i : injector.resolve( Dependency.dependency( Injectron[].class ) ) ) {
+						if ( i.getResource().getType().getRawType() == type.getRawType()
+								&& !i.getResource().getTarget().equalTo( Target.ANY ) ) {
+							res = false;
+						}
+					}
+				}
+				switchable = res;
+			}
+			return res;
+		}
+
+		private Switch<T> switchTo( Dependency<? super T> dependency, Injector injector, C value ) {
+			if ( value == null ) {
+				Switch<T> res = byNull;
+				if ( res == null ) {
+					res = switchOf( dependency, injector, null );
+					byNull = res;
+				}
+				return res;
+			}
+			if ( value instanceof Enum<?> ) {
+				AtomicReferenceArray<Switch<T>> table = byOrdinal;
+				if ( table == null ) {
+					table = new AtomicReferenceArray<Switch<T>>(
+							( (Enum<?>) value ).getDeclaringClass().getEnumConstants().length );
+					byOrdinal = table;
+				}
+				final int ordinal = ( (Enum<?>) value ).ordinal();
+				Switch<T> res = table.get( ordinal );
+				if ( res == null ) {
+					res = switchOf( dependency, injector, value );
+					table.set( ordinal, res );
+				}
+				return res;
+			}
+			Switch<T> res = byValue.get( value );
+			if ( res == null ) {
+				res = switchOf( dependency, injector, value );
+				byValue.put( value, res );
+			}
+			return res;
 		}
 
+		private Switch<T> switchOf( Dependency<? super T> dependency, Injector injector, C value ) {
+			final Name name = configuration.name( value );
+			final Injectron<T> injectron = injector.tryResolve( dependency.instanced( Instance.instance(
+					name, injectronTypeOf( type ) ) ) );
+			return new Switch<T>( Instance.instance( name, type ), injectron );
+		}
+	}
+
+	/**
+	 * The {@link Injectron} a {@link ConfigurationDependentSupplier} switches to for a value.
+	 */
+	private static final class Switch<T> {
+
+		final Instance<T> instance;
+		/**
+		 * <code>null</code> if the value switches to a instance that is not bound.
+		 */
+		final Injectron<T> injectron;
+
+		Switch( Instance<T> instance, Injectron<T> injectron ) {
+			super();
+			this.instance = instance;
+			this.injectron = injectron;
+		}
 	}
 
 	/**
@@ -381,6 +500,12 @@ public final class SuppliedBy {
 
 		private final Dependency<T> dependency;
 		private final Injector injector;
+		/**
+		 * The {@link Injectron} resolved on first use so that further calls to
+		 * {@link #provide()} need no lookup.
+		 */
+		private volatile Injectron<T> injectron;
+		private volatile boolean unpinned;
 
 		LazyProvider( Dependency<T> dependency, Injector injector ) {
 			super();
@@ -390,7 +515,20 @@ public final class SuppliedBy {
 
 		@Override
 		public T provide() {
-			return injector.resolve( dependency );
+			Injectron<T> res = injectron;
+			if ( res == null ) {
+				if ( unpinned ) {
+					return injector.resolve( dependency );
+				}
+				res = injector.tryResolve( dependency.instanced( Instance.instance(
+						dependency.getName(), injectronTypeOf( dependency.getType() ) ) ) );
+				if ( res == null ) { // e.g. arrays are not resolved by a single injectron
+					unpinned = true;
+					return injector.resolve( dependency );
+				}
+				injectron = res;
+			}
+			return res.instanceFor( dependency );
 		}
 
 		@Override
@@ -426,20 +564,27 @@ public final class SuppliedBy {
 	}
 
 	private static final class ConstructorSupplier<T>
-			implements Supplier<T> {
+			implements Supplier<T>, Dependent {
 
 		private final Constructor<T> constructor;
 		private final Parameterization<?>[] params;
+		private final Invocable<T> invocable;
 
-		ConstructorSupplier( Constructible<T> constructible ) {
+		ConstructorSupplier( Constructible<T> constructible, Invoker invoker ) {
 			this.constructor = Metaclass.accessible( constructible.constructor );
 			this.params = parameterizations( parameterTypes( constructor ),
 					constructible.parameters );
+			this.invocable = invoker.constructor( constructor );
 		}
 
 		@Override
 		public T supply( Dependency<? super T> dependency, Injector injector ) {
-			return Invoke.constructor( constructor, resolve( dependency, injector, params ) );
+			return invocable.invoke( null, resolve( dependency, injector, params ) );
+		}
+
+		@Override
+		public Type<?>[] dependencies() {
+			return typesOf( params );
 		}
 
 		@Override
@@ -449,16 +594,18 @@ public final class SuppliedBy {
 	}
 
 	private static final class MethodSupplier<T>
-			implements Supplier<T> {
+			implements Supplier<T>, Dependent {
 
 		private final Producible<T> producible;
 		private final Parameterization<?>[] params;
+		private final Invocable<?> invocable;
 
-		MethodSupplier( Producible<T> producible ) {
+		MethodSupplier( Producible<T> producible, Invoker invoker ) {
 			super();
 			this.producible = producible;
 			this.params = parameterizations( parameterTypes( producible.producer ),
 					producible.parameters );
+			this.invocable = invoker.method( Metaclass.accessible( producible.producer ) );
 		}
 
 		@Override
@@ -468,8 +615,15 @@ public final class SuppliedBy {
 				owner = injector.resolve( Dependency.dependency( producible.producer.getDeclaringClass() ) );
 			}
 			return producible.returnType.getRawType().cast(
-					Invoke.method( producible.producer, owner,
-							resolve( dependency, injector, params ) ) );
+					invocable.invoke( owner, resolve( dependency, injector, params ) ) );
+		}
+
+		@Override
+		public Type<?>[] dependencies() {
+			Type<?>[] types = typesOf( params );
+			return producible.isInstanceMethod() && producible.instance == null
+				? Array.append( types, Type.raw( producible.producer.getDeclaringClass() ) )
+				: types;
 		}
 
 		@Override
@@ -0,0 +1,32 @@
+/*
+ *  Copyright (c) 2012-2013, Jan Bernitt 
+ *			
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.service;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+/**
+ * The asynchronous counterpart of a {@link ServiceMethod}. The service is executed by the
+ * {@link Executor} bound for the class defining the service method (see
+ * {@link ServiceModule#SERVICE_EXECUTOR}).
+ * 
+ * {@link ServiceInvocation}s are invoked on the thread executing the service.
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ * 
+ * @param <R>
+ *            The return type of the method wired to this service
+ * @param <P>
+ *            The type of the parameter of the service
+ */
+public interface AsyncServiceMethod<P, R> {
+
+	/**
+	 * @return the {@link Future} value that results from the execution of this service with the
+	 *         given argument as parameter.
+	 */
+	Future<R> invoke( P params );
+}
@@ -0,0 +1,33 @@
+/*
+ *  Copyright (c) 2012-2013, Jan Bernitt 
+ *			
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.service;
+
+import java.util.List;
+
+/**
+ * Invokes the same service for many parameters at once.
+ * 
+ * When there is a service method accepting a {@link List} of the parameter type and returning a
+ * {@link List} of the return type it is used. Otherwise the single parameter service is invoked
+ * for each parameter. Then arguments that are injected into the service method are resolved once
+ * for the whole batch and {@link ServiceInvocation}s are invoked once with {@link List}s as
+ * parameter and result.
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ * 
+ * @param <R>
+ *            The return type of the method wired to this service
+ * @param <P>
+ *            The type of the parameter of the service
+ */
+public interface BatchServiceMethod<P, R> {
+
+	/**
+	 * @return the values resulting from the execution of this service with each of the given
+	 *         arguments as parameter (in the same order).
+	 */
+	List<R> invokeAll( List<P> params );
+}
@@ -0,0 +1,151 @@
+/*
+ *  Copyright (c) 2012-2013, Jan Bernitt 
+ *			
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.service;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the number of concurrent executions of the {@link ServiceMethod}s it is bound to. All
+ * service methods bound to the same {@link Bulkhead} share its permits.
+ * 
+ * When no permit is available a call either fails fast or waits (queues) at most
+ * {@link #timeoutNanos} for a permit. A call that does not get a permit fails with a
+ * {@link RejectedCallException}. It is thrown to the caller as it is and does not count as an
+ * error of the service.
+ * 
+ * @see ServiceModule#limitServiceMethodsIn(Class, Bulkhead)
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+public final class Bulkhead {
+
+	/**
+	 * @return A {@link Bulkhead} that rejects calls right away when all permits are taken.
+	 */
+	public static Bulkhead bulkhead( int permits ) {
+		return new Bulkhead( permits, 0L );
+	}
+
+	public final int permits;
+	/**
+	 * How long a call waits for a permit in nanoseconds; <code>0</code> to fail fast.
+	 */
+	public final long timeoutNanos;
+
+	private final Semaphore semaphore;
+	private final AtomicLong acquisitions = new AtomicLong();
+	private final AtomicLong rejections = new AtomicLong();
+	private final AtomicLong waitNanos = new AtomicLong();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+
+	private Bulkhead( int permits, long timeoutNanos ) {
+		super();
+		if ( permits <= 0 ) {
+			throw new IllegalArgumentException( "Permits have to be positive but were: " + permits );
+		}
+		this.permits = permits;
+		this.timeoutNanos = timeoutNanos;
+		this.semaphore = new Semaphore( permits, true );
+	}
+
+	/**
+	 * @return A {@link Bulkhead} with the same number of permits where calls wait at most the
+	 *         given time for a permit.
+	 */
+	public Bulkhead queuing( long timeout, TimeUnit unit ) {
+		return new Bulkhead( permits, unit.toNanos( timeout ) );
+	}
+
+	/**
+	 * @return The number of permits currently not taken.
+	 */
+	public int available() {
+		return semaphore.availablePermits();
+	}
+
+	public long acquisitions() {
+		return acquisitions.get();
+	}
+
+	public long rejections() {
+		return rejections.get();
+	}
+
+	/**
+	 * @return The sum of nanoseconds calls had to wait for a permit (including rejected calls).
+	 */
+	public long waitNanos() {
+		return waitNanos.get();
+	}
+
+	public long maxWaitNanos() {
+		return maxWaitNanos.get();
+	}
+
+	void acquire( Object service ) {
+		if ( semaphore.tryAcquire() ) {
+			acquisitions.incrementAndGet();
+			return;
+		}
+		if ( timeoutNanos > 0L ) {
+			final long start = System.nanoTime();
+			boolean acquired = false;
+			try {
+				acquired = semaphore.tryAcquire( timeoutNanos, TimeUnit.NANOSECONDS );
+			} catch ( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+			} finally {
+				waited( System.nanoTime() - start );
+			}
+			if ( acquired ) {
+				acquisitions.incrementAndGet();
+				return;
+			}
+		}
+		rejections.incrementAndGet();
+		throw new RejectedCallException( "No permit (of " + permits + ") available for: "
+				+ service );
+	}
+
+	void release() {
+		semaphore.release();
+	}
+
+	private void waited( long nanos ) {
+		waitNanos.addAndGet( nanos );
+		long max = maxWaitNanos.get();
+		while ( nanos > max && !maxWaitNanos.compareAndSet( max, nanos ) ) {
+			max = maxWaitNanos.get();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "bulkhead(" + permits + ( timeoutNanos > 0L
+			? ", " + TimeUnit.NANOSECONDS.toMillis( timeoutNanos ) + "ms"
+			: "" ) + ") acquisitions=" + acquisitions + " rejections=" + rejections
+				+ " wait_ns=" + waitNanos + " wait_ns_max=" + maxWaitNanos;
+	}
+
+	/**
+	 * Thrown when a call did not get a permit of a {@link Bulkhead}. The service method has not
+	 * been called.
+	 * 
+	 * @author Jan Bernitt (jan@jbee.se)
+	 */
+	public static final class RejectedCallException
+			extends RejectedExecutionException {
+
+		private static final long serialVersionUID = 1L;
+
+		RejectedCallException( String message ) {
+			super( message );
+		}
+	}
+}
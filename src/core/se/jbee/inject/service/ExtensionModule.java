@@ -44,4 +44,12 @@ public abstract class ExtensionModule
 		return Dependency.dependency( raw( Class[].class ).parametizedAsUpperBounds() ).named(
 				namedInternal( extension.getCanonicalName() + ":" + Name.WILDCARD ) );
 	}
+
+	@SuppressWarnings ( { "rawtypes" } )
+	public static <E extends Enum<E> & Extension<E, ? super T>, T> Dependency<Class[]> extensionDependency(
+			E extension ) {
+		return Dependency.dependency( raw( Class[].class ).parametizedAsUpperBounds() ).named(
+				namedInternal( extension.getClass().getCanonicalName() + ":" + extension.name()
+						+ ":" + Name.WILDCARD ) );
+	}
 }
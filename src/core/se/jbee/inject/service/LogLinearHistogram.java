@@ -0,0 +1,88 @@
+/*
+ *  Copyright (c) 2012-2013, Jan Bernitt 
+ *			
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of positive <code>long</code> values with a fixed number of buckets. Each power of
+ * two range is split into {@value #SUB_BUCKETS} buckets of equal width so that the relative error
+ * of a bucket is at most 1/{@value #SUB_BUCKETS}.
+ * 
+ * Recording is lock-free and does not allocate.
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+final class LogLinearHistogram {
+
+	private static final int SUB_BITS = 3;
+	static final int SUB_BUCKETS = 1 << SUB_BITS;
+	private static final int BUCKETS = ( 64 - SUB_BITS + 1 ) * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray( BUCKETS );
+
+	LogLinearHistogram() {
+		// make visible
+	}
+
+	void record( long value ) {
+		buckets.incrementAndGet( index( Math.max( 0L, value ) ) );
+	}
+
+	long[] counts() {
+		long[] res = new long[BUCKETS];
+		for ( int i = 0; i < res.length; i++ ) {
+			res[i] = buckets.get( i );
+		}
+		return res;
+	}
+
+	static int index( long value ) {
+		if ( value < SUB_BUCKETS ) {
+			return (int) value;
+		}
+		int exp = 63 - Long.numberOfLeadingZeros( value );
+		int sub = (int) ( ( value >>> ( exp - SUB_BITS ) ) & ( SUB_BUCKETS - 1 ) );
+		return ( exp - SUB_BITS + 1 ) * SUB_BUCKETS + sub;
+	}
+
+	/**
+	 * @return the largest value that is counted in the bucket with the given index.
+	 */
+	static long upperBound( int index ) {
+		if ( index < SUB_BUCKETS ) {
+			return index;
+		}
+		int exp = index / SUB_BUCKETS + SUB_BITS - 1;
+		long lower = (long) ( SUB_BUCKETS + index % SUB_BUCKETS ) << ( exp - SUB_BITS );
+		return lower + ( 1L << ( exp - SUB_BITS ) ) - 1L;
+	}
+
+	/**
+	 * @param percentile
+	 *            A value between 0 and 1
+	 * @return The upper bound of the bucket containing the value at the given percentile of all
+	 *         values counted or <code>0</code> if nothing was counted.
+	 */
+	static long percentile( long[] counts, double percentile ) {
+		long total = 0L;
+		for ( long count : counts ) {
+			total += count;
+		}
+		if ( total == 0L ) {
+			return 0L;
+		}
+		long rank = Math.max( 1L, (long) Math.ceil( percentile * total ) );
+		long seen = 0L;
+		for ( int i = 0; i < counts.length; i++ ) {
+			seen += counts[i];
+			if ( seen >= rank ) {
+				return upperBound( i );
+			}
+		}
+		return Long.MAX_VALUE;
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ *  Copyright (c) 2012-2013, Jan Bernitt 
+ *			
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Describes how results of {@link ServiceMethod}s that are pure functions of their parameter are
+ * cached and counts how well the caches work.
+ * 
+ * Each service method memoized gets its own cache holding at most {@link #maxSize} results. When
+ * full the least recently used result is evicted. Larger caches are split into segments by the
+ * hash of the parameter that are locked and evicted independently so that the least recently used
+ * result of a segment is evicted. Results can also expire after a fixed time. Exceptions are not
+ * cached.
+ * 
+ * The statistics are summed up for all service methods memoized with the same {@link Memoization}
+ * instance.
+ * 
+ * @see ServiceModule#memoizeServiceMethodsIn(Class, Memoization)
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+public final class Memoization {
+
+	public static Memoization memoization( int maxSize ) {
+		return new Memoization( maxSize, 0L );
+	}
+
+	public final int maxSize;
+	/**
+	 * The time a result can be used for in nanoseconds or <code>0</code> if results do not expire.
+	 */
+	public final long expiryNanos;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	private Memoization( int maxSize, long expiryNanos ) {
+		super();
+		if ( maxSize <= 0 ) {
+			throw new IllegalArgumentException( "Max size has to be positive but was: " + maxSize );
+		}
+		this.maxSize = maxSize;
+		this.expiryNanos = expiryNanos;
+	}
+
+	public Memoization expiringAfter( long duration, TimeUnit unit ) {
+		return new Memoization( maxSize, unit.toNanos( duration ) );
+	}
+
+	public long hits() {
+		return hits.get();
+	}
+
+	public long misses() {
+		return misses.get();
+	}
+
+	/**
+	 * @return How many results have been removed because the cache was full or the result expired.
+	 */
+	public long evictions() {
+		return evictions.get();
+	}
+
+	/**
+	 * @return The ratio of calls answered from the cache (0 if there has not been any call).
+	 */
+	public double hitRate() {
+		long h = hits.get();
+		long total = h + misses.get();
+		return total == 0L
+			? 0d
+			: (double) h / total;
+	}
+
+	Cache newCache() {
+		return new Cache( this );
+	}
+
+	@Override
+	public String toString() {
+		return "memoization(" + maxSize + ( expiryNanos > 0L
+			? ", " + TimeUnit.NANOSECONDS.toMillis( expiryNanos ) + "ms"
+			: "" ) + ") hits=" + hits + " misses=" + misses + " evictions=" + evictions;
+	}
+
+	/**
+	 * The results of a single service method by parameter.
+	 */
+	static final class Cache {
+
+		/**
+		 * Returned by {@link #get(Object)} when there is no result for a parameter since
+		 * <code>null</code> is a valid result.
+		 */
+		static final Object MISS = new Object();
+
+		/**
+		 * The least number of results a segment holds. Smaller caches just have one segment.
+		 */
+		private static final int MIN_SEGMENT_SIZE = 16;
+		private static final int MAX_SEGMENTS = 16;
+
+		private final Memoization memoization;
+		private final Map<Object, Result>[] segments;
+
+		@SuppressWarnings ( { "unchecked", "rawtypes" } )
+		Cache( Memoization memoization ) {
+			super();
+			this.memoization = memoization;
+			int count = Math.max( 1, Math.min( MAX_SEGMENTS, memoization.maxSize
+					/ MIN_SEGMENT_SIZE ) );
+			this.segments = new Map[count];
+			for ( int i = 0; i < count; i++ ) {
+				segments[i] = segment( memoization, memoization.maxSize / count
+					+ ( i < memoization.maxSize % count
+						? 1
+						: 0 ) );
+			}
+		}
+
+		private static Map<Object, Result> segment( final Memoization memoization,
+				final int maxSize ) {
+			return new LinkedHashMap<Object, Result>( 16, 0.75f, true ) {
+
+				@Override
+				protected boolean removeEldestEntry( Map.Entry<Object, Result> eldest ) {
+					if ( size() > maxSize ) {
+						memoization.evictions.incrementAndGet();
+						return true;
+					}
+					return false;
+				}
+			};
+		}
+
+		private Map<Object, Result> segmentOf( Object parameter ) {
+			if ( segments.length == 1 ) {
+				return segments[0];
+			}
+			int h = parameter == null
+				? 0
+				: parameter.hashCode();
+			h ^= ( h >>> 16 );
+			return segments[( h & 0x7fffffff ) % segments.length];
+		}
+
+		Object get( Object parameter ) {
+			final Map<Object, Result> results = segmentOf( parameter );
+			Result res;
+			synchronized ( results ) {
+				res = results.get( parameter );
+				if ( res != null && res.isExpired() ) {
+					results.remove( parameter );
+					memoization.evictions.incrementAndGet();
+					res = null;
+				}
+			}
+			if ( res == null ) {
+				memoization.misses.incrementAndGet();
+				return MISS;
+			}
+			memoization.hits.incrementAndGet();
+			return res.value;
+		}
+
+		void put( Object parameter, Object value ) {
+			Result res = new Result( value, memoization.expiryNanos == 0L
+				? 0L
+				: System.nanoTime() + memoization.expiryNanos );
+			final Map<Object, Result> results = segmentOf( parameter );
+			synchronized ( results ) {
+				results.put( parameter, res );
+			}
+		}
+	}
+
+	private static final class Result {
+
+		final Object value;
+		/**
+		 * The {@link System#nanoTime()} after which the value is expired or <code>0</code> if it
+		 * does not expire.
+		 */
+		final long expires;
+
+		Result( Object value, long expires ) {
+			super();
+			this.value = value;
+			this.expires = expires;
+		}
+
+		boolean isExpired() {
+			return expires != 0L && System.nanoTime() - expires > 0L;
+		}
+	}
+}
@@ -13,20 +13,42 @@ import static se.jbee.inject.Type.parameterTypes;
 import static se.jbee.inject.Type.raw;
 import static se.jbee.inject.Type.returnType;
 import static se.jbee.inject.service.ExtensionModule.extensionDependency;
+import static se.jbee.inject.service.ExtensionModule.extensionName;
 import static se.jbee.inject.util.Scoped.APPLICATION;
 import static se.jbee.inject.util.Scoped.DEPENDENCY_TYPE;
+import static se.jbee.inject.util.Scoped.INJECTION;
+import static se.jbee.inject.util.Typecast.listTypeOf;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-
-import se.jbee.inject.DIRuntimeException;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import se.jbee.inject.DIRuntimeException.AmbiguousFunctionException;
+import se.jbee.inject.DIRuntimeException.NoSuchFunctionException;
 import se.jbee.inject.Dependency;
 import se.jbee.inject.Injector;
 import se.jbee.inject.Injectron;
 import se.jbee.inject.Instance;
+import se.jbee.inject.Name;
 import se.jbee.inject.Supplier;
 import se.jbee.inject.Type;
 import se.jbee.inject.bind.Bind;
@@ -41,6 +63,7 @@ import se.jbee.inject.bootstrap.Bundle;
 import se.jbee.inject.bootstrap.Inspect;
 import se.jbee.inject.bootstrap.Inspector;
 import se.jbee.inject.bootstrap.Module;
+import se.jbee.inject.service.Bulkhead.RejectedCallException;
 import se.jbee.inject.service.ServiceInvocation.ServiceInvocationExtension;
 import se.jbee.inject.service.ServiceMethod.ServiceClassExtension;
 import se.jbee.inject.util.Metaclass;
@@ -66,10 +89,93 @@ public abstract class ServiceModule
 	public static final Instance<Inspector> SERVICE_INSPECTOR = instance(
 			namedInternal( "service" ), raw( Inspector.class ) );
 
+	/**
+	 * The {@link Executor} that runs the {@link AsyncServiceMethod}s of a service class. It is
+	 * resolved targeting the service class so that each class can use its own.
+	 * 
+	 * @see #executeServiceMethodsIn(Class, Executor)
+	 */
+	public static final Instance<Executor> SERVICE_EXECUTOR = instance(
+			namedInternal( "service" ), raw( Executor.class ) );
+
+	/**
+	 * The {@link Memoization} of all {@link ServiceMethod}s of a service class. It is resolved
+	 * targeting the service class.
+	 * 
+	 * @see #memoizeServiceMethodsIn(Class, Memoization)
+	 */
+	public static final Instance<Memoization> SERVICE_MEMOIZATION = instance(
+			namedInternal( "service" ), raw( Memoization.class ) );
+
+	/**
+	 * The {@link Bulkhead} limiting concurrent calls of all {@link ServiceMethod}s of a service
+	 * class. It is resolved targeting the service class.
+	 * 
+	 * @see #limitServiceMethodsIn(Class, Bulkhead)
+	 */
+	public static final Instance<Bulkhead> SERVICE_BULKHEAD = instance(
+			namedInternal( "service" ), raw( Bulkhead.class ) );
+
+	/**
+	 * @return An {@link Executor} that starts a new virtual thread for each task when running on a
+	 *         JVM that supports them, otherwise a pool with one daemon thread per processor.
+	 */
+	public static Executor serviceExecutor() {
+		try {
+			return (Executor) Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke(
+					null );
+		} catch ( Exception e ) {
+			return Executors.newFixedThreadPool( Runtime.getRuntime().availableProcessors(),
+					new ServiceThreadFactory() );
+		}
+	}
+
 	protected final void bindServiceMethodsIn( Class<?> service ) {
 		ExtensionModule.extend( binder, ServiceClassExtension.class, service );
 	}
 
+	protected final void executeServiceMethodsIn( Class<?> service, Executor executor ) {
+		binder.injectingInto( service ).bind( SERVICE_EXECUTOR ).to( executor );
+	}
+
+	/**
+	 * Caches the results of all service methods in the given class. Use this only for classes
+	 * whose methods are pure functions of their parameter.
+	 */
+	protected final void memoizeServiceMethodsIn( Class<?> service, Memoization memoization ) {
+		binder.injectingInto( service ).bind( SERVICE_MEMOIZATION ).to( memoization );
+	}
+
+	/**
+	 * Caches the results of the service methods with the given name in the given class. This is
+	 * used instead of a {@link Memoization} of the whole class.
+	 */
+	protected final void memoizeServiceMethod( Class<?> service, String method,
+			Memoization memoization ) {
+		binder.injectingInto( service ).bind( serviceMethodNamed( method ), Memoization.class ).to(
+				memoization );
+	}
+
+	/**
+	 * Limits the concurrent calls of all service methods in the given class together.
+	 */
+	protected final void limitServiceMethodsIn( Class<?> service, Bulkhead bulkhead ) {
+		binder.injectingInto( service ).bind( SERVICE_BULKHEAD ).to( bulkhead );
+	}
+
+	/**
+	 * Limits the concurrent calls of the service methods with the given name in the given class.
+	 * This is used instead of a {@link Bulkhead} of the whole class.
+	 */
+	protected final void limitServiceMethod( Class<?> service, String method, Bulkhead bulkhead ) {
+		binder.injectingInto( service ).bind( serviceMethodNamed( method ), Bulkhead.class ).to(
+				bulkhead );
+	}
+
+	static Name serviceMethodNamed( String method ) {
+		return namedInternal( "service:" + method );
+	}
+
 	protected final void bindServiceInspectorTo( Inspector inspector ) {
 		binder.bind( SERVICE_INSPECTOR ).to( inspector );
 	}
@@ -79,11 +185,31 @@ public abstract class ServiceModule
 		ExtensionModule.extend( binder, type, invocation );
 	}
 
+	/**
+	 * Like {@link #extend(ServiceInvocationExtension, Class)} but the {@link ServiceInvocation}
+	 * is just used for service methods whose {@link Type} of the given kind is assignable to the
+	 * given target.
+	 * 
+	 * The {@link ServiceInvocationExtension#INJECTED_TYPE} cannot be targeted since a
+	 * {@link ServiceMethod} is shared by all classes it is injected into.
+	 */
+	protected final void extend( ServiceInvocationExtension type, Class<?> target,
+			Class<? extends ServiceInvocation<?>> invocation ) {
+		if ( type == ServiceInvocationExtension.INJECTED_TYPE ) {
+			throw new IllegalArgumentException( "Service invocations cannot target the "
+					+ type + " since service methods are shared: " + invocation );
+		}
+		binder.injectingInto( target ).multibind( extensionName( type, invocation ), Class.class ).to(
+				invocation );
+		implicitBinder.bind( invocation ).toConstructor(); // the same invocation can target many types
+	}
+
 	protected final <T> TypedBinder<T> starbind( Class<T> service ) {
 		return binder.per( DEPENDENCY_TYPE ).starbind( service );
 	}
 
 	private RootBinder binder;
+	private RootBinder implicitBinder;
 
 	@Override
 	public final void bootstrap( Bootstrapper bootstrap ) {
@@ -94,7 +220,9 @@ public abstract class ServiceModule
 	@Override
 	public void declare( Bindings bindings ) {
 		Bootstrap.nonnullThrowsReentranceException( binder );
-		binder = Binder.create( Bind.create( bindings, source( getClass() ), Scoped.APPLICATION ) );
+		Bind bind = Bind.create( bindings, source( getClass() ), Scoped.APPLICATION );
+		binder = Binder.create( bind );
+		implicitBinder = Binder.create( bind.asImplicit() );
 		declare();
 	}
 
@@ -109,6 +237,14 @@ public abstract class ServiceModule
 					ServiceProviderSupplier.class );
 			per( DEPENDENCY_TYPE ).starbind( ServiceMethod.class ).toSupplier(
 					ServiceSupplier.class );
+			per( DEPENDENCY_TYPE ).starbind( AsyncServiceMethod.class ).toSupplier(
+					AsyncServiceSupplier.class );
+			per( DEPENDENCY_TYPE ).starbind( BatchServiceMethod.class ).toSupplier(
+					BatchServiceSupplier.class );
+			asDefault().per( APPLICATION ).bind( SERVICE_EXECUTOR ).toSupplier(
+					ServiceExecutorSupplier.class );
+			per( INJECTION ).bind( ServiceStatistics.class ).toSupplier(
+					ServiceStatisticsSupplier.class );
 			asDefault().per( APPLICATION ).bind( SERVICE_INSPECTOR ).to( Inspect.all().methods() );
 		}
 
@@ -129,88 +265,219 @@ public abstract class ServiceModule
 			implements ServiceProvider {
 
 		/**
-		 * A list of service methods for each service class.
+		 * The service methods implementing each signature. Built once from all service classes.
+		 * More than one method means the signature is ambiguous.
+		 */
+		private final Map<Signature, Method[]> methods;
+		/**
+		 * All already created {@link ServiceMethod}s identified by their signature.
+		 */
+		private final ConcurrentMap<Signature, ServiceMethod<?, ?>> services = new ConcurrentHashMap<Signature, ServiceMethod<?, ?>>();
+		/**
+		 * All already created {@link AsyncServiceMethod}s identified by their signature.
 		 */
-		private final Map<Class<?>, Method[]> methodsCache = new IdentityHashMap<Class<?>, Method[]>();
+		private final ConcurrentMap<Signature, AsyncServiceMethod<?, ?>> asyncServices = new ConcurrentHashMap<Signature, AsyncServiceMethod<?, ?>>();
 		/**
-		 * All already created {@link ServiceMethod}s identified by a unique function signature.
+		 * The {@link BatchServiceMethod}s that dispatch to a service method accepting a
+		 * {@link List}, identified by the signature of a single element.
 		 */
-		private final Map<String, ServiceMethod<?, ?>> serviceCache = new HashMap<String, ServiceMethod<?, ?>>();
+		private final ConcurrentMap<Signature, BatchServiceMethod<?, ?>> batchServices = new ConcurrentHashMap<Signature, BatchServiceMethod<?, ?>>();
 
 		private final Injector injector;
-		private final Inspector inspect;
-		private final Class<?>[] serviceClasses;
 
 		ServiceMethodProvider( Injector injector ) {
 			super();
 			this.injector = injector;
-			this.serviceClasses = injector.resolve( extensionDependency( ServiceClassExtension.class ) );
-			this.inspect = injector.resolve( dependency( SERVICE_INSPECTOR ).injectingInto(
-					ServiceProvider.class ) );
+			this.methods = index( injector.resolve( extensionDependency( ServiceClassExtension.class ) ),
+					injector.resolve( dependency( SERVICE_INSPECTOR ).injectingInto(
+							ServiceProvider.class ) ) );
+		}
+
+		/**
+		 * A method implements the signature of each of its parameter types (others are injected)
+		 * and its return type. Methods without parameters implement the {@link Type#VOID}
+		 * parameter signature.
+		 * 
+		 * Signatures implemented by more than one method are kept with all of them. This is only
+		 * an error when such a signature is requested since most of them are formed by injected
+		 * parameters that are never meant to be the parameter of the service.
+		 */
+		private static Map<Signature, Method[]> index( Class<?>[] serviceClasses, Inspector inspect ) {
+			Map<Signature, Method[]> res = new HashMap<Signature, Method[]>();
+			for ( Class<?> service : serviceClasses ) {
+				for ( Method sm : inspect.methodsIn( service ) ) {
+					Type<?> rt = returnType( sm );
+					Type<?>[] pts = parameterTypes( sm );
+					if ( pts.length == 0 ) {
+						index( res, new Signature( Type.VOID, rt ), sm );
+					}
+					for ( Type<?> pt : pts ) {
+						index( res, new Signature( pt, rt ), sm );
+					}
+				}
+			}
+			return res;
+		}
+
+		private static void index( Map<Signature, Method[]> methods, Signature signature,
+				Method method ) {
+			Method[] existing = methods.get( signature );
+			if ( existing == null ) {
+				methods.put( signature, new Method[] { method } );
+			} else if ( !Arrays.asList( existing ).contains( method ) ) {
+				Method[] candidates = Arrays.copyOf( existing, existing.length + 1 );
+				candidates[existing.length] = method;
+				methods.put( signature, candidates );
+			}
 		}
 
 		@SuppressWarnings ( "unchecked" )
 		@Override
 		public <P, R> ServiceMethod<P, R> provide( Type<P> parameterType, Type<R> returnType ) {
-			String signatur = parameterType + "->" + returnType; // haskell like function signature
-			ServiceMethod<?, ?> service = serviceCache.get( signatur );
+			final Signature signature = new Signature( parameterType, returnType );
+			ServiceMethod<?, ?> service = services.get( signature );
 			if ( service == null ) {
-				synchronized ( serviceCache ) {
-					service = serviceCache.get( signatur );
-					if ( service == null ) {
-						service = create( resolveServiceMethod( parameterType, returnType ),
-								parameterType, returnType, injector );
-						serviceCache.put( signatur, service );
-					}
+				service = create( method( signature ), parameterType, returnType, injector );
+				ServiceMethod<?, ?> existing = services.putIfAbsent( signature, service );
+				if ( existing != null ) {
+					service = existing;
 				}
 			}
 			return (ServiceMethod<P, R>) service;
 		}
 
+		@SuppressWarnings ( "unchecked" )
+		<P, R> AsyncServiceMethod<P, R> provideAsync( Type<P> parameterType, Type<R> returnType ) {
+			final Signature signature = new Signature( parameterType, returnType );
+			AsyncServiceMethod<?, ?> service = asyncServices.get( signature );
+			if ( service == null ) {
+				Executor executor = injector.resolve( dependency( SERVICE_EXECUTOR ).injectingInto(
+						method( signature ).getDeclaringClass() ) );
+				service = new ExecutingServiceMethod<P, R>( provide( parameterType, returnType ),
+						executor );
+				AsyncServiceMethod<?, ?> existing = asyncServices.putIfAbsent( signature, service );
+				if ( existing != null ) {
+					service = existing;
+				}
+			}
+			return (AsyncServiceMethod<P, R>) service;
+		}
+
+		/**
+		 * A service method that natively accepts a {@link List} of parameters and returns a
+		 * {@link List} of results is preferred to invoking the single parameter service for each
+		 * element.
+		 */
+		@SuppressWarnings ( "unchecked" )
+		<P, R> BatchServiceMethod<P, R> provideBatch( Type<P> parameterType, Type<R> returnType ) {
+			Type<List<P>> batchParameterType = listTypeOf( parameterType );
+			Type<List<R>> batchReturnType = listTypeOf( returnType );
+			if ( !methods.containsKey( new Signature( batchParameterType, batchReturnType ) ) ) {
+				return (BatchServiceMethod<P, R>) provide( parameterType, returnType );
+			}
+			final Signature signature = new Signature( parameterType, returnType );
+			BatchServiceMethod<?, ?> service = batchServices.get( signature );
+			if ( service == null ) {
+				service = new ListServiceMethod<P, R>( provide( batchParameterType,
+						batchReturnType ) );
+				BatchServiceMethod<?, ?> existing = batchServices.putIfAbsent( signature, service );
+				if ( existing != null ) {
+					service = existing;
+				}
+			}
+			return (BatchServiceMethod<P, R>) service;
+		}
+
+		/**
+		 * @throws NoSuchFunctionException
+		 *             In case no method implements the signature
+		 * @throws AmbiguousFunctionException
+		 *             In case more then one method implements the signature
+		 */
+		private Method method( Signature signature ) {
+			Method[] candidates = methods.get( signature );
+			if ( candidates == null ) {
+				throw new NoSuchFunctionException( signature.returnType, signature.parameterType );
+			}
+			if ( candidates.length > 1 ) {
+				throw new AmbiguousFunctionException( signature.returnType,
+						signature.parameterType, candidates );
+			}
+			return candidates[0];
+		}
+
 		private static <P, T> ServiceMethod<P, T> create( Method service, Type<P> parameterType,
 				Type<T> returnType, Injector injector ) {
 			Object implementor = injector.resolve( dependency( service.getDeclaringClass() ) );
 			return new PreresolvingServiceMethod<P, T>( implementor, service, parameterType,
-					returnType, injector );
+					returnType, injector, perMethodOrClass( SERVICE_MEMOIZATION, service, injector ),
+					perMethodOrClass( SERVICE_BULKHEAD, service, injector ) );
 		}
 
-		private <P, T> Method resolveServiceMethod( Type<P> parameterType, Type<T> returnType ) {
-			for ( Class<?> service : serviceClasses ) {
-				for ( Method sm : serviceClassMethods( service ) ) {
-					Type<?> rt = returnType( sm );
-					if ( rt.equalTo( returnType ) ) {
-						if ( parameterType.equalTo( Type.VOID ) ) {
-							if ( sm.getParameterTypes().length == 0 ) {
-								return sm;
-							}
-						} else {
-							for ( Type<?> pt : parameterTypes( sm ) ) {
-								if ( pt.equalTo( parameterType ) ) {
-									return sm;
-								}
-							}
-						}
-					}
-				}
-			}
-			throw new DIRuntimeException.NoSuchFunctionException( returnType, parameterType );
+		/**
+		 * @return The value bound for the given service method or else for its class or
+		 *         <code>null</code> if there is neither.
+		 */
+		private static <T> T perMethodOrClass( Instance<T> instance, Method service,
+				Injector injector ) {
+			Class<?> serviceClass = service.getDeclaringClass();
+			T res = injector.tryResolve( dependency( instance.getType() ).named(
+					serviceMethodNamed( service.getName() ) ).injectingInto( serviceClass ) );
+			return res != null
+				? res
+				: injector.tryResolve( dependency( instance ).injectingInto( serviceClass ) );
 		}
 
-		private Method[] serviceClassMethods( Class<?> service ) {
-			Method[] methods = methodsCache.get( service );
-			if ( methods != null ) {
-				return methods;
-			}
-			synchronized ( methodsCache ) {
-				methods = methodsCache.get( service );
-				if ( methods == null ) {
-					methods = inspect.methodsIn( service );
-					methodsCache.put( service, methods );
-				}
+	}
+
+	/**
+	 * The parameter and return {@link Type} of a {@link ServiceMethod}.
+	 */
+	private static final class Signature {
+
+		final Type<?> parameterType;
+		final Type<?> returnType;
+		private final int hash;
+
+		Signature( Type<?> parameterType, Type<?> returnType ) {
+			super();
+			this.parameterType = parameterType;
+			this.returnType = returnType;
+			this.hash = 31 * parameterType.hashCode() + returnType.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals( Object obj ) {
+			if ( !( obj instanceof Signature ) ) {
+				return false;
 			}
-			return methods;
+			Signature other = (Signature) obj;
+			return hash == other.hash && parameterType.equalTo( other.parameterType )
+					&& returnType.equalTo( other.returnType );
 		}
 
+		@Override
+		public String toString() {
+			return parameterType + "->" + returnType; // haskell like function signature
+		}
+	}
+
+	private static final class ServiceStatisticsSupplier
+			implements Supplier<ServiceStatistics> {
+
+		@Override
+		public ServiceStatistics supply( Dependency<? super ServiceStatistics> dependency,
+				Injector injector ) {
+			ServiceStatistics.Recorder recorder = injector.tryResolve( dependency.anyTyped( ServiceStatistics.Recorder.class ) );
+			return recorder == null
+				? new ServiceStatistics( new ServiceStatistics.Metric[0] )
+				: recorder.snapshot();
+		}
 	}
 
 	private static final class ServiceSupplier
@@ -225,115 +492,499 @@ public abstract class ServiceModule
 		}
 	}
 
+	private static final class AsyncServiceSupplier
+			implements Supplier<AsyncServiceMethod<?, ?>> {
+
+		@Override
+		public AsyncServiceMethod<?, ?> supply(
+				Dependency<? super AsyncServiceMethod<?, ?>> dependency, Injector injector ) {
+			ServiceProvider serviceProvider = injector.resolve( dependency.anyTyped( ServiceProvider.class ) );
+			Type<? super AsyncServiceMethod<?, ?>> type = dependency.getType();
+			if ( serviceProvider instanceof ServiceMethodProvider ) {
+				return ( (ServiceMethodProvider) serviceProvider ).provideAsync( type.parameter( 0 ),
+						type.parameter( 1 ) );
+			}
+			// a custom provider does not tell what class defines the service
+			return new ExecutingServiceMethod<Object, Object>( serviceProvider.provide(
+					type.parameter( 0 ), type.parameter( 1 ) ), injector.resolve( dependency(
+					SERVICE_EXECUTOR ).injectingInto( ServiceProvider.class ) ) );
+		}
+	}
+
+	private static final class BatchServiceSupplier
+			implements Supplier<BatchServiceMethod<?, ?>> {
+
+		@Override
+		public BatchServiceMethod<?, ?> supply(
+				Dependency<? super BatchServiceMethod<?, ?>> dependency, Injector injector ) {
+			ServiceProvider serviceProvider = injector.resolve( dependency.anyTyped( ServiceProvider.class ) );
+			Type<? super BatchServiceMethod<?, ?>> type = dependency.getType();
+			if ( serviceProvider instanceof ServiceMethodProvider ) {
+				return ( (ServiceMethodProvider) serviceProvider ).provideBatch( type.parameter( 0 ),
+						type.parameter( 1 ) );
+			}
+			return new LoopServiceMethod<Object, Object>( serviceProvider.provide(
+					type.parameter( 0 ), type.parameter( 1 ) ) );
+		}
+	}
+
+	/**
+	 * A {@link BatchServiceMethod} for a {@link ServiceMethod} that natively accepts a batch.
+	 */
+	private static final class ListServiceMethod<P, T>
+			implements BatchServiceMethod<P, T> {
+
+		private final ServiceMethod<List<P>, List<T>> service;
+
+		ListServiceMethod( ServiceMethod<List<P>, List<T>> service ) {
+			super();
+			this.service = service;
+		}
+
+		@Override
+		public List<T> invokeAll( List<P> params ) {
+			return service.invoke( params );
+		}
+
+		@Override
+		public String toString() {
+			return service.toString();
+		}
+	}
+
+	/**
+	 * A {@link BatchServiceMethod} for a {@link ServiceMethod} of a custom
+	 * {@link ServiceProvider} that is invoked for each element.
+	 */
+	private static final class LoopServiceMethod<P, T>
+			implements BatchServiceMethod<P, T> {
+
+		private final ServiceMethod<P, T> service;
+
+		@SuppressWarnings ( "unchecked" )
+		LoopServiceMethod( ServiceMethod<?, ?> service ) {
+			super();
+			this.service = (ServiceMethod<P, T>) service;
+		}
+
+		@Override
+		public List<T> invokeAll( List<P> params ) {
+			List<T> res = new ArrayList<T>( params.size() );
+			for ( P p : params ) {
+				res.add( service.invoke( p ) );
+			}
+			return res;
+		}
+
+		@Override
+		public String toString() {
+			return "batch " + service;
+		}
+	}
+
+	/**
+	 * Runs a {@link ServiceMethod} with an {@link Executor} so that the
+	 * {@link ServiceInvocation}s also run on the executing thread.
+	 */
+	private static final class ExecutingServiceMethod<P, T>
+			implements AsyncServiceMethod<P, T> {
+
+		final ServiceMethod<P, T> service;
+		final Executor executor;
+
+		@SuppressWarnings ( "unchecked" )
+		ExecutingServiceMethod( ServiceMethod<?, ?> service, Executor executor ) {
+			super();
+			this.service = (ServiceMethod<P, T>) service;
+			this.executor = executor;
+		}
+
+		@Override
+		public Future<T> invoke( final P params ) {
+			FutureTask<T> task = new FutureTask<T>( new Callable<T>() {
+
+				@Override
+				public T call() {
+					return service.invoke( params );
+				}
+			} );
+			executor.execute( task );
+			return task;
+		}
+
+		@Override
+		public String toString() {
+			return "async " + service;
+		}
+	}
+
+	/**
+	 * Creates the default {@link Executor} when the first {@link AsyncServiceMethod} needs it.
+	 */
+	private static final class ServiceExecutorSupplier
+			implements Supplier<Executor> {
+
+		ServiceExecutorSupplier() {
+			// make visible
+		}
+
+		@Override
+		public Executor supply( Dependency<? super Executor> dependency, Injector injector ) {
+			return serviceExecutor();
+		}
+	}
+
+	private static final class ServiceThreadFactory
+			implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		ServiceThreadFactory() {
+			// make visible
+		}
+
+		@Override
+		public Thread newThread( Runnable task ) {
+			Thread thread = new Thread( task, "service-" + count.incrementAndGet() );
+			thread.setDaemon( true );
+			return thread;
+		}
+	}
+
+	/**
+	 * A {@link ServiceMethod} that resolves everything needed to invoke the service {@link Method}
+	 * up front. The implementor and all arguments that never expire are bound into a
+	 * {@link MethodHandle} so that a invocation just passes the parameter and the arguments that
+	 * have to be resolved for each call.
+	 * 
+	 * When no {@link ServiceInvocation}s are bound no state is kept for them at all. Otherwise the
+	 * state array is a buffer reused by each thread.
+	 */
 	private static final class PreresolvingServiceMethod<P, T>
-			implements ServiceMethod<P, T> {
+			implements ServiceMethod<P, T>, BatchServiceMethod<P, T> {
 
-		private final Object implementor;
 		private final Method method;
 		private final Type<P> parameterType;
 		private final Type<T> returnType;
-		private final Injector injector;
-		private final Injectron<?>[] argumentInjectrons;
-		private final Type<?>[] parameterTypes;
-		private final Object[] argumentTemplate;
 		private final ServiceInvocation<?>[] invocations;
+		/**
+		 * The arguments resolved for each call (because they expire) in the order they are passed
+		 * to the {@link #handle} after the parameter.
+		 */
+		private final Injectron<?>[] argumentInjectrons;
+		private final Dependency<?>[] argumentDependencies;
+		/**
+		 * <code>(parameter) -> result</code> or <code>(parameter, arguments[]) -> result</code>
+		 * when there are {@link #argumentInjectrons}.
+		 */
+		private final MethodHandle handle;
+		private final ThreadLocal<Object[]> argumentBuffers = new ThreadLocal<Object[]>();
+		private final ThreadLocal<Object[]> stateBuffers = new ThreadLocal<Object[]>();
+		/**
+		 * The results by parameter or <code>null</code> if the service is not memoized.
+		 */
+		private final Memoization.Cache cache;
+		/**
+		 * Limits concurrent calls or <code>null</code> if they are not limited.
+		 */
+		private final Bulkhead bulkhead;
 
 		PreresolvingServiceMethod( Object implementor, Method service, Type<P> parameterType,
-				Type<T> returnType, Injector injector ) {
+				Type<T> returnType, Injector injector, Memoization memoization, Bulkhead bulkhead ) {
 			super();
-			this.implementor = implementor;
+			this.bulkhead = bulkhead;
+			this.cache = memoization == null
+				? null
+				: memoization.newCache();
 			this.method = Metaclass.accessible( service );
 			this.parameterType = parameterType;
 			this.returnType = returnType;
-			this.injector = injector;
-			this.parameterTypes = parameterTypes( method );
-			this.argumentInjectrons = argumentInjectrons();
-			this.argumentTemplate = argumentTemplate();
-			this.invocations = resolveInvocations( injector );
+			this.invocations = resolveInvocations( injector, method, parameterType, returnType );
+			Type<?>[] parameterTypes = parameterTypes( method );
+			List<Injectron<?>> injectrons = new ArrayList<Injectron<?>>();
+			List<Dependency<?>> dependencies = new ArrayList<Dependency<?>>();
+			Object[] constants = new Object[parameterTypes.length];
+			boolean[] constant = new boolean[parameterTypes.length];
+			int[] order = new int[parameterTypes.length];
+			int remaining = 0;
+			for ( int i = 0; i < parameterTypes.length; i++ ) {
+				Type<?> paramType = parameterTypes[i];
+				if ( paramType.equalTo( parameterType ) ) {
+					order[remaining++] = 0;
+				} else {
+					Dependency<?> dependency = dependency( paramType );
+					Injectron<?> injectron = injector.resolve( dependency( raw( Injectron.class ).parametized( paramType ) ) );
+					if ( injectron.getExpiry().isNever() ) {
+						constant[i] = true;
+						constants[i] = instance( injectron, dependency );
+					} else {
+						injectrons.add( injectron );
+						dependencies.add( dependency );
+						order[remaining++] = injectrons.size();
+					}
+				}
+			}
+			MethodHandle handle = handle( implementor, method );
+			for ( int i = parameterTypes.length - 1; i >= 0; i-- ) {
+				if ( constant[i] ) {
+					handle = MethodHandles.insertArguments( handle, i, constants[i] );
+				}
+			}
+			this.argumentInjectrons = injectrons.toArray( new Injectron<?>[injectrons.size()] );
+			this.argumentDependencies = dependencies.toArray( new Dependency<?>[dependencies.size()] );
+			this.handle = adapt( handle, Arrays.copyOf( order, remaining ),
+					argumentInjectrons.length );
 		}
 
-		private static ServiceInvocation<?>[] resolveInvocations( Injector context ) {
-			@SuppressWarnings ( "unchecked" )
-			Class<? extends ServiceInvocation<?>>[] classes = context.resolve( extensionDependency( ServiceInvocationExtension.class ) );
-			ServiceInvocation<?>[] res = new ServiceInvocation<?>[classes.length];
-			for ( int i = 0; i < res.length; i++ ) {
-				res[i] = context.resolve( Dependency.dependency( classes[i] ) );
+		private static MethodHandle handle( Object implementor, Method method ) {
+			try {
+				MethodHandle handle = MethodHandles.lookup().unreflect( method );
+				if ( !Modifier.isStatic( method.getModifiers() ) ) {
+					handle = handle.bindTo( implementor );
+				}
+				return handle.asType( MethodType.genericMethodType( method.getParameterTypes().length ) );
+			} catch ( IllegalAccessException e ) {
+				throw new RuntimeException( e );
+			}
+		}
+
+		/**
+		 * @param order
+		 *            the argument of the adapted handle each remaining argument of the given handle
+		 *            is taken from: 0 is the parameter, 1 and following are the elements of the
+		 *            arguments array
+		 */
+		private static MethodHandle adapt( MethodHandle handle, int[] order, int arguments ) {
+			Class<?>[] types = new Class<?>[1 + arguments];
+			Arrays.fill( types, Object.class );
+			MethodHandle res = MethodHandles.permuteArguments( handle, MethodType.methodType(
+					Object.class, types ), order );
+			return arguments == 0
+				? res
+				: res.asSpreader( Object[].class, arguments );
+		}
+
+		/**
+		 * Untargeted {@link ServiceInvocation}s apply to all service methods. Targeted ones only
+		 * apply when the {@link Type} they target matches the one of this service method.
+		 */
+		private static ServiceInvocation<?>[] resolveInvocations( Injector context,
+				Method service, Type<?> parameterType, Type<?> returnType ) {
+			Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+			add( classes, context.resolve( extensionDependency( ServiceInvocationExtension.class ) ) );
+			add( classes, context.resolve( extensionDependency(
+					ServiceInvocationExtension.DEFINING_TYPE ).injectingInto(
+					service.getDeclaringClass() ) ) );
+			add( classes, context.resolve( extensionDependency(
+					ServiceInvocationExtension.PARAMETER_TYPE ).injectingInto( parameterType ) ) );
+			add( classes, context.resolve( extensionDependency(
+					ServiceInvocationExtension.RETURN_TYPE ).injectingInto( returnType ) ) );
+			ServiceInvocation<?>[] res = new ServiceInvocation<?>[classes.size()];
+			int i = 0;
+			for ( Class<?> invocation : classes ) {
+				res[i++] = (ServiceInvocation<?>) context.resolve( Dependency.dependency( invocation ) );
 			}
 			return res;
 		}
 
-		private Object[] argumentTemplate() {
-			Object[] template = new Object[parameterTypes.length];
-			for ( int i = 0; i < template.length; i++ ) {
-				Injectron<?> injectron = argumentInjectrons[i];
-				if ( injectron != null && injectron.getExpiry().isNever() ) {
-					template[i] = instance( injectron, dependency( parameterTypes[i] ) );
-				}
+		private static void add( Set<Class<?>> classes, Class<?>[] extensions ) {
+			for ( Class<?> e : extensions ) {
+				classes.add( e );
 			}
-			return template;
 		}
 
+		/**
+		 * The arguments that expire are resolved before the {@link ServiceInvocation}s are
+		 * notified so that a failure to resolve them is thrown as it is. They are not resolved when
+		 * the result is memoized.
+		 */
 		@Override
 		public T invoke( P params ) {
-			Object[] args = actualArguments( params );
-			Object[] state = before( params );
-			T res = null;
+			Object cached = cached( params );
+			if ( cached != Memoization.Cache.MISS || argumentInjectrons.length == 0 ) {
+				return invoke( params, cached, null );
+			}
+			Object[] args = argumentBuffers.get();
+			if ( args == null ) {
+				args = new Object[argumentInjectrons.length];
+			} else {
+				argumentBuffers.set( null ); // a nested call on same thread uses its own buffer
+			}
 			try {
-				res = returnType.getRawType().cast( method.invoke( implementor, args ) );
-			} catch ( Exception e ) {
-				if ( e instanceof InvocationTargetException ) {
-					Throwable t = ( (InvocationTargetException) e ).getTargetException();
-					if ( t instanceof Exception ) {
-						e = (Exception) t;
-					}
+				return invoke( params, cached, resolveArguments( args ) );
+			} finally {
+				Arrays.fill( args, null );
+				argumentBuffers.set( args );
+			}
+		}
+
+		private T invoke( P params, Object cached, Object[] args ) {
+			if ( invocations.length == 0 ) {
+				try {
+					return result( params, cached, args );
+				} catch ( RejectedCallException e ) {
+					throw e;
+				} catch ( Exception e ) {
+					throw failed( e );
 				}
-				afterException( params, e, state );
-				throw new RuntimeException( "Failed to invoke service: " + this + " \n"
-						+ e.getMessage(), e );
 			}
-			after( params, res, state );
-			return res;
+			final Value<P> param = Value.value( parameterType, params );
+			Object[] states = stateBuffers.get();
+			if ( states == null ) {
+				states = new Object[invocations.length];
+			} else {
+				stateBuffers.set( null ); // a nested call on same thread uses its own buffer
+			}
+			try {
+				before( param, returnType, states );
+				T res;
+				try {
+					res = result( params, cached, args );
+				} catch ( RejectedCallException e ) {
+					throw e;
+				} catch ( Exception e ) {
+					afterException( param, returnType, e, states );
+					throw failed( e );
+				}
+				after( param, Value.value( returnType, res ), states );
+				return res;
+			} finally {
+				Arrays.fill( states, null );
+				stateBuffers.set( states );
+			}
 		}
 
-		private void afterException( P params, Exception e, Object[] states ) {
+		/**
+		 * The arguments that expire are resolved once for the whole batch and the
+		 * {@link ServiceInvocation}s see the batch as a single invocation with a {@link List}
+		 * parameter and result.
+		 */
+		@Override
+		public List<T> invokeAll( List<P> params ) {
+			Object[] args = argumentInjectrons.length == 0
+				? null
+				: resolveArguments( new Object[argumentInjectrons.length] );
 			if ( invocations.length == 0 ) {
-				return;
+				try {
+					return callAll( params, args );
+				} catch ( RejectedCallException e ) {
+					throw e;
+				} catch ( Exception e ) {
+					throw failed( e );
+				}
+			}
+			final Value<List<P>> param = Value.value( listTypeOf( parameterType ), params );
+			final Type<List<T>> batchReturnType = listTypeOf( returnType );
+			Object[] states = new Object[invocations.length];
+			before( param, batchReturnType, states );
+			List<T> res;
+			try {
+				res = callAll( params, args );
+			} catch ( RejectedCallException e ) {
+				throw e;
+			} catch ( Exception e ) {
+				afterException( param, batchReturnType, e, states );
+				throw failed( e );
+			}
+			after( param, Value.value( batchReturnType, res ), states );
+			return res;
+		}
+
+		private List<T> callAll( List<P> params, Object[] args )
+				throws Exception {
+			List<T> res = new ArrayList<T>( params.size() );
+			for ( P p : params ) {
+				Object cached = cached( p );
+				res.add( cached != Memoization.Cache.MISS
+					? returnType.getRawType().cast( cached )
+					: memoize( p, call( p, args ) ) );
+			}
+			return res;
+		}
+
+		private T result( P params, Object cached, Object[] args )
+				throws Exception {
+			return cached != Memoization.Cache.MISS
+				? returnType.getRawType().cast( cached )
+				: memoize( params, call( params, args ) );
+		}
+
+		private Object cached( P params ) {
+			return cache == null
+				? Memoization.Cache.MISS
+				: cache.get( params );
+		}
+
+		private T memoize( P params, T res ) {
+			if ( cache != null ) {
+				cache.put( params, res );
+			}
+			return res;
+		}
+
+		private Object[] resolveArguments( Object[] args ) {
+			for ( int i = 0; i < args.length; i++ ) {
+				args[i] = instance( argumentInjectrons[i], argumentDependencies[i] );
+			}
+			return args;
+		}
+
+		private T call( P params, Object[] args )
+				throws Exception {
+			if ( bulkhead == null ) {
+				return callHandle( params, args );
 			}
-			final Value<P> paramValue = Value.value( parameterType, params );
+			bulkhead.acquire( this );
+			try {
+				return callHandle( params, args );
+			} finally {
+				bulkhead.release();
+			}
+		}
+
+		private T callHandle( P params, Object[] args )
+				throws Exception {
+			try {
+				return returnType.getRawType().cast( args == null
+					? (Object) handle.invokeExact( (Object) params )
+					: (Object) handle.invokeExact( (Object) params, args ) );
+			} catch ( Exception e ) {
+				throw e;
+			} catch ( Throwable e ) {
+				throw new InvocationTargetException( e ); // like Method#invoke does for errors
+			}
+		}
+
+		private RuntimeException failed( Exception e ) {
+			return new RuntimeException( "Failed to invoke service: " + this + " \n"
+					+ e.getMessage(), e );
+		}
+
+		private <V, R> void afterException( Value<V> param, Type<R> result, Exception e,
+				Object[] states ) {
 			for ( int i = 0; i < invocations.length; i++ ) {
 				try {
-					afterException( invocations[i], states[i], paramValue, returnType, e );
+					afterException( invocations[i], states[i], param, result, e );
 				} catch ( RuntimeException re ) {
 					// warn that invocation before had thrown an exception
 				}
 			}
 		}
 
-		private Object[] before( P params ) {
-			if ( invocations.length == 0 ) {
-				return null;
-			}
-			Object[] invokeState = new Object[invocations.length];
-			Value<P> v = Value.value( parameterType, params );
+		private <V, R> void before( Value<V> param, Type<R> result, Object[] states ) {
 			for ( int i = 0; i < invocations.length; i++ ) {
 				try {
-					invokeState[i] = invocations[i].before( v, returnType );
+					states[i] = invocations[i].before( param, result );
 				} catch ( RuntimeException e ) {
 					// warn that invocation before had thrown an exception
 				}
 			}
-			return invokeState;
 		}
 
-		private void after( P param, T res, Object[] states ) {
-			if ( invocations.length == 0 ) {
-				return;
-			}
-			final Value<P> paramValue = Value.value( parameterType, param );
-			final Value<T> resValue = Value.value( returnType, res );
+		private <V, R> void after( Value<V> param, Value<R> res, Object[] states ) {
 			for ( int i = 0; i < invocations.length; i++ ) {
 				try {
-					after( invocations[i], states[i], paramValue, resValue );
+					after( invocations[i], states[i], param, res );
 				} catch ( RuntimeException e ) {
 					// warn that invocation before had thrown an exception
 				}
@@ -352,30 +1003,6 @@ public abstract class ServiceModule
 			inv.afterException( param, result, e, (I) state );
 		}
 
-		private Injectron<?>[] argumentInjectrons() {
-			Injectron<?>[] res = new Injectron<?>[parameterTypes.length];
-			for ( int i = 0; i < res.length; i++ ) {
-				Type<?> paramType = parameterTypes[i];
-				res[i] = paramType.equalTo( parameterType )
-					? null
-					: injector.resolve( dependency( raw( Injectron.class ).parametized( paramType ) ) );
-			}
-			return res;
-		}
-
-		private Object[] actualArguments( P params ) {
-			Object[] args = argumentTemplate.clone();
-			for ( int i = 0; i < args.length; i++ ) {
-				Type<?> paramType = parameterTypes[i];
-				if ( paramType.equalTo( parameterType ) ) {
-					args[i] = params;
-				} else if ( args[i] == null ) {
-					args[i] = instance( argumentInjectrons[i], dependency( paramType ) );
-				}
-			}
-			return args;
-		}
-
 		@SuppressWarnings ( "unchecked" )
 		private static <I> I instance( Injectron<I> injectron, Dependency<?> dependency ) {
 			return injectron.instanceFor( (Dependency<? super I>) dependency );
@@ -0,0 +1,227 @@
+/*
+ *  Copyright (c) 2012-2013, Jan Bernitt 
+ *			
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import se.jbee.inject.Type;
+import se.jbee.inject.util.Value;
+
+/**
+ * A snapshot of the calls, errors and latencies of each {@link ServiceMethod} measured by a
+ * {@link Recorder}.
+ * 
+ * To measure services the {@link Recorder} is bound as a {@link ServiceInvocation}:
+ * 
+ * <pre>
+ * extend( ServiceInvocationExtension.RETURN_TYPE, ServiceStatistics.Recorder.class );
+ * </pre>
+ * 
+ * Each injection of {@link ServiceStatistics} is a new snapshot.
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+public final class ServiceStatistics {
+
+	private final Metric[] metrics;
+
+	ServiceStatistics( Metric[] metrics ) {
+		super();
+		this.metrics = metrics;
+	}
+
+	/**
+	 * @return The values of all services called so far.
+	 */
+	public Metric[] metrics() {
+		return metrics.clone();
+	}
+
+	/**
+	 * @return The values of the service with the given signature or <code>null</code> if it has
+	 *         not been called yet.
+	 */
+	public Metric metric( Type<?> parameterType, Type<?> returnType ) {
+		for ( Metric m : metrics ) {
+			if ( m.parameterType.equalTo( parameterType ) && m.returnType.equalTo( returnType ) ) {
+				return m;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return A plain text export with one line per service.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder b = new StringBuilder();
+		for ( Metric m : metrics ) {
+			b.append( m ).append( '\n' );
+		}
+		return b.toString();
+	}
+
+	/**
+	 * The values measured for a service at the time of the snapshot.
+	 * 
+	 * @author Jan Bernitt (jan@jbee.se)
+	 */
+	public static final class Metric {
+
+		public final Type<?> parameterType;
+		public final Type<?> returnType;
+		/**
+		 * How often the service has been called (including calls that failed).
+		 */
+		public final long calls;
+		/**
+		 * How often a call of the service ended with an exception.
+		 */
+		public final long errors;
+		public final long maxNanos;
+		private final long[] histogram;
+
+		Metric( Type<?> parameterType, Type<?> returnType, long calls, long errors,
+				long maxNanos, long[] histogram ) {
+			super();
+			this.parameterType = parameterType;
+			this.returnType = returnType;
+			this.calls = calls;
+			this.errors = errors;
+			this.maxNanos = maxNanos;
+			this.histogram = histogram;
+		}
+
+		/**
+		 * @param percentile
+		 *            A value between 0 and 1
+		 * @return The nanoseconds a call took that is greater or equal than the given percentile
+		 *         of all calls (with an error of at most 1/8).
+		 */
+		public long nanos( double percentile ) {
+			return Math.min( maxNanos, LogLinearHistogram.percentile( histogram, percentile ) );
+		}
+
+		@Override
+		public String toString() {
+			return parameterType + "->" + returnType + " calls=" + calls + " errors=" + errors
+					+ " ns_p50=" + nanos( 0.5d ) + " ns_p99=" + nanos( 0.99d ) + " ns_max="
+					+ maxNanos;
+		}
+	}
+
+	/**
+	 * The {@link ServiceInvocation} measuring the services. The state passed from
+	 * {@link #before(Value, Type)} to {@link #after(Value, Value, Long)} is the start time.
+	 * 
+	 * @author Jan Bernitt (jan@jbee.se)
+	 */
+	public static final class Recorder
+			implements ServiceInvocation<Long> {
+
+		/**
+		 * Services are identified by their parameter and return type (in that order).
+		 */
+		private final ConcurrentMap<Type<?>, ConcurrentMap<Type<?>, Meter>> meters = new ConcurrentHashMap<Type<?>, ConcurrentMap<Type<?>, Meter>>();
+
+		public Recorder() {
+			super();
+		}
+
+		@Override
+		public <P, R> Long before( Value<P> parameter, Type<R> result ) {
+			return System.nanoTime();
+		}
+
+		@Override
+		public <P, R> void after( Value<P> parameter, Value<R> result, Long before ) {
+			meter( parameter.getType(), result.getType() ).called( System.nanoTime() - before,
+					false );
+		}
+
+		@Override
+		public <P, R> void afterException( Value<P> parameter, Type<R> result, Exception e,
+				Long before ) {
+			meter( parameter.getType(), result ).called( System.nanoTime() - before, true );
+		}
+
+		/**
+		 * @return The current values of all services called so far.
+		 */
+		public ServiceStatistics snapshot() {
+			List<Metric> res = new ArrayList<Metric>();
+			for ( Map<Type<?>, Meter> byReturnType : meters.values() ) {
+				for ( Meter m : byReturnType.values() ) {
+					res.add( m.snapshot() );
+				}
+			}
+			return new ServiceStatistics( res.toArray( new Metric[res.size()] ) );
+		}
+
+		private Meter meter( Type<?> parameterType, Type<?> returnType ) {
+			ConcurrentMap<Type<?>, Meter> byReturnType = meters.get( parameterType );
+			if ( byReturnType == null ) {
+				byReturnType = new ConcurrentHashMap<Type<?>, Meter>();
+				ConcurrentMap<Type<?>, Meter> existing = meters.putIfAbsent( parameterType,
+						byReturnType );
+				if ( existing != null ) {
+					byReturnType = existing;
+				}
+			}
+			Meter meter = byReturnType.get( returnType );
+			if ( meter == null ) {
+				meter = new Meter( parameterType, returnType );
+				Meter existing = byReturnType.putIfAbsent( returnType, meter );
+				if ( existing != null ) {
+					meter = existing;
+				}
+			}
+			return meter;
+		}
+	}
+
+	/**
+	 * The measurements for a single service.
+	 */
+	private static final class Meter {
+
+		final Type<?> parameterType;
+		final Type<?> returnType;
+		final AtomicLong calls = new AtomicLong();
+		final AtomicLong errors = new AtomicLong();
+		final AtomicLong maxNanos = new AtomicLong();
+		final LogLinearHistogram histogram = new LogLinearHistogram();
+
+		Meter( Type<?> parameterType, Type<?> returnType ) {
+			super();
+			this.parameterType = parameterType;
+			this.returnType = returnType;
+		}
+
+		void called( long nanos, boolean failed ) {
+			calls.incrementAndGet();
+			if ( failed ) {
+				errors.incrementAndGet();
+			}
+			histogram.record( nanos );
+			long max = maxNanos.get();
+			while ( nanos > max && !maxNanos.compareAndSet( max, nanos ) ) {
+				max = maxNanos.get();
+			}
+		}
+
+		Metric snapshot() {
+			return new Metric( parameterType, returnType, calls.get(), errors.get(),
+					maxNanos.get(), histogram.counts() );
+		}
+	}
+}
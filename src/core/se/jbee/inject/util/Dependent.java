@@ -0,0 +1,24 @@
+/*
+ *  Copyright (c) 2012-2013, Jan Bernitt 
+ *			
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.util;
+
+import se.jbee.inject.Supplier;
+import se.jbee.inject.Type;
+
+/**
+ * A {@link Supplier} that is known to resolve other instances while supplying its own, like the
+ * parameters of a {@link Constructible} or {@link Producible}.
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+public interface Dependent {
+
+	/**
+	 * @return The {@link Type}s of the instances resolved to supply an instance. These are the
+	 *         declared types; names or targets of the actual parameters are not included.
+	 */
+	Type<?>[] dependencies();
+}
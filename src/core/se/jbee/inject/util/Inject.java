@@ -8,12 +8,20 @@ package se.jbee.inject.util;
 import static se.jbee.inject.Emergence.emergence;
 import static se.jbee.inject.Type.raw;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import se.jbee.inject.Array;
 import se.jbee.inject.DIRuntimeException.NoSuchResourceException;
@@ -23,11 +31,14 @@ import se.jbee.inject.Expiry;
 import se.jbee.inject.Injectable;
 import se.jbee.inject.Injector;
 import se.jbee.inject.Injectron;
+import se.jbee.inject.Instance;
 import se.jbee.inject.Precision;
 import se.jbee.inject.Repository;
+import se.jbee.inject.Resolver;
 import se.jbee.inject.Resource;
 import se.jbee.inject.Source;
 import se.jbee.inject.Supplier;
+import se.jbee.inject.Target;
 import se.jbee.inject.Type;
 
 /**
@@ -37,6 +48,8 @@ import se.jbee.inject.Type;
  */
 public final class Inject {
 
+	private static final Type<?>[] NO_TYPES = new Type<?>[0];
+
 	public static Injector from( InjectronSource source ) {
 		return new SourcedInjector( source );
 	}
@@ -47,9 +60,29 @@ public final class Inject {
 
 	public static <T> Injectron<T> injectron( Injectable<T> injectable, Resource<T> resource,
 			Demand<T> demand, Expiry expiry, Repository repository, Source source ) {
+		if ( expiry.isNever() && Scoped.isPerResource( InjectorMetrics.unmetered( repository ) ) ) {
+			return new PublishingInjectron<T>( resource, source, demand, expiry, repository,
+					injectable );
+		}
 		return new StaticInjectron<T>( resource, source, demand, expiry, repository, injectable );
 	}
 
+	/**
+	 * @return The {@link Type}s the given {@link Injectron} is known to resolve when creating its
+	 *         instances or an empty array if nothing is known about it.
+	 * @see Dependent
+	 */
+	public static Type<?>[] dependenciesOf( Injectron<?> injectron ) {
+		if ( injectron instanceof StaticInjectron<?> ) {
+			Injectable<?> injectable = ( (StaticInjectron<?>) injectron ).injectable;
+			if ( injectable instanceof SupplierToInjectable<?>
+					&& ( (SupplierToInjectable<?>) injectable ).supplier instanceof Dependent ) {
+				return ( (Dependent) ( (SupplierToInjectable<?>) injectable ).supplier ).dependencies();
+			}
+		}
+		return NO_TYPES;
+	}
+
 	private static class SupplierToInjectable<T>
 			implements Injectable<T> {
 
@@ -81,17 +114,57 @@ public final class Inject {
 	public static final class SourcedInjector
 			implements Injector {
 
+		/**
+		 * The number of different {@link Instance}s of the same raw type whose {@link Injectron}
+		 * is memorised. Further ones are resolved by scanning the candidates each time.
+		 */
+		private static final int MAX_RESOLUTIONS_PER_TYPE = 16;
+
 		private final Map<Class<?>, Injectron<?>[]> injectrons;
+		/**
+		 * For each raw type that is a supertype of (or equal to) a bound raw type: all the bound
+		 * raw types assignable to it. Used to resolve upper bound arrays like
+		 * <code>? extends X[]</code> without testing every bound type.
+		 */
+		private final Map<Class<?>, Class<?>[]> assignables;
+		private final ConcurrentMap<Class<?>, Injectron<?>[]> assignableInjectrons = new ConcurrentHashMap<Class<?>, Injectron<?>[]>();
+		/**
+		 * The raw types with {@link Injectron}s that are only applicable for some
+		 * {@link Target}s. Their resolution depends on the injection hierarchy and is not
+		 * memorised.
+		 */
+		private final Set<Class<?>> targeted;
+		private final ConcurrentMap<Class<?>, Resolution[]> resolved = new ConcurrentHashMap<Class<?>, Resolution[]>();
+		private final AtomicLong hits = new AtomicLong();
+		private final AtomicLong misses = new AtomicLong();
 
 		SourcedInjector( InjectronSource source ) {
 			super();
-			this.injectrons = initFrom( source );
-		}
-
-		private Map<Class<?>, Injectron<?>[]> initFrom( InjectronSource source ) {
 			Injectron<?>[] injectrons = source.exportTo( this );
 			Arrays.sort( injectrons, Precision.RESOURCE_COMPARATOR );
-			Map<Class<?>, Injectron<?>[]> map = new IdentityHashMap<Class<?>, Injectron<?>[]>(
+			this.injectrons = initFrom( injectrons );
+			this.assignables = assignablesOf( this.injectrons.keySet() );
+			this.targeted = targetedOf( this.injectrons );
+		}
+
+		/**
+		 * @return The number of resolutions that could be answered from the memorised
+		 *         {@link Injectron}s without scanning the candidates.
+		 */
+		public long resolutionCacheHits() {
+			return hits.get();
+		}
+
+		/**
+		 * @return The number of resolutions that had to scan the candidates to find the most
+		 *         precise {@link Injectron}.
+		 */
+		public long resolutionCacheMisses() {
+			return misses.get();
+		}
+
+		private static Map<Class<?>, Injectron<?>[]> initFrom( Injectron<?>[] injectrons ) {
+			Map<Class<?>, Injectron<?>[]> map = new LinkedHashMap<Class<?>, Injectron<?>[]>(
 					injectrons.length );
 			if ( injectrons.length == 0 ) {
 				return map;
@@ -110,9 +183,86 @@ public final class Inject {
 			return map;
 		}
 
-		@SuppressWarnings ( "unchecked" )
+		private static Set<Class<?>> targetedOf( Map<Class<?>, Injectron<?>[]> injectrons ) {
+			Set<Class<?>> res = Collections.newSetFromMap( new IdentityHashMap<Class<?>, Boolean>() );
+			for ( Entry<Class<?>, Injectron<?>[]> e : injectrons.entrySet() ) {
+				for ( Injectron<?> i : e.getValue() ) {
+					if ( !i.getResource().getTarget().equalTo( Target.ANY ) ) {
+						res.add( e.getKey() );
+					}
+				}
+			}
+			return res;
+		}
+
+		private static Map<Class<?>, Class<?>[]> assignablesOf( Set<Class<?>> rawTypes ) {
+			Map<Class<?>, List<Class<?>>> assignables = new IdentityHashMap<Class<?>, List<Class<?>>>();
+			for ( Class<?> rawType : rawTypes ) {
+				for ( Class<?> supertype : supertypesOf( rawType ) ) {
+					List<Class<?>> subtypes = assignables.get( supertype );
+					if ( subtypes == null ) {
+						subtypes = new ArrayList<Class<?>>();
+						assignables.put( supertype, subtypes );
+					}
+					subtypes.add( rawType );
+				}
+			}
+			Map<Class<?>, Class<?>[]> res = new IdentityHashMap<Class<?>, Class<?>[]>(
+					assignables.size() );
+			for ( Entry<Class<?>, List<Class<?>>> e : assignables.entrySet() ) {
+				res.put( e.getKey(), e.getValue().toArray( new Class<?>[e.getValue().size()] ) );
+			}
+			return res;
+		}
+
+		/**
+		 * @return all classes the given one is assignable to (including itself) following the
+		 *         rules of {@link Class#isAssignableFrom(Class)}.
+		 */
+		private static Set<Class<?>> supertypesOf( Class<?> type ) {
+			Set<Class<?>> res = new LinkedHashSet<Class<?>>();
+			addSupertypes( res, type );
+			return res;
+		}
+
+		private static void addSupertypes( Set<Class<?>> res, Class<?> type ) {
+			if ( !res.add( type ) || type.isPrimitive() ) {
+				return;
+			}
+			if ( type.isArray() ) {
+				res.add( Object.class );
+				res.add( Cloneable.class );
+				res.add( Serializable.class );
+				Class<?> componentType = type.getComponentType();
+				if ( !componentType.isPrimitive() ) {
+					for ( Class<?> supertype : supertypesOf( componentType ) ) {
+						res.add( java.lang.reflect.Array.newInstance( supertype, 0 ).getClass() );
+					}
+				}
+				return;
+			}
+			if ( type.isInterface() ) {
+				res.add( Object.class );
+			} else if ( type.getSuperclass() != null ) {
+				addSupertypes( res, type.getSuperclass() );
+			}
+			for ( Class<?> superinterface : type.getInterfaces() ) {
+				addSupertypes( res, superinterface );
+			}
+		}
+
 		@Override
 		public <T> T resolve( Dependency<T> dependency ) {
+			return resolve( dependency, true );
+		}
+
+		@Override
+		public <T> T tryResolve( Dependency<T> dependency ) {
+			return resolve( dependency, false );
+		}
+
+		@SuppressWarnings ( "unchecked" )
+		private <T> T resolve( Dependency<T> dependency, boolean required ) {
 			final Type<T> type = dependency.getType();
 			final int array = type.arrayDimensions();
 			Injectron<T> injectron = applicableInjectron( dependency );
@@ -121,10 +271,10 @@ public final class Inject {
 			}
 			if ( array == 1 ) {
 				//OPEN what about 2D array to get all "values" when the "value" type is a 1D array ? Test if this works
-				return resolveArray( dependency, type.elementType() );
+				return resolveArray( dependency, type.elementType(), required );
 			}
 			if ( type.getRawType() == Injectron.class ) {
-				Injectron<?> i = applicableInjectron( dependency.onTypeParameter() );
+				Injectron<?> i = applicableInjectron( injectronDependency( dependency ) );
 				if ( i != null ) {
 					return (T) i;
 				}
@@ -132,11 +282,83 @@ public final class Inject {
 			if ( type.getRawType() == Injector.class ) {
 				return (T) this;
 			}
+			if ( required ) {
+				throw noInjectronFor( dependency );
+			}
+			return null;
+		}
+
+		@SuppressWarnings ( "unchecked" )
+		@Override
+		public <T> Resolver<T> resolver( Dependency<T> dependency ) {
+			final Type<T> type = dependency.getType();
+			Injectron<T> injectron = applicableInjectron( dependency );
+			if ( injectron instanceof StaticInjectron<?> ) {
+				return ( (StaticInjectron<T>) injectron ).resolverFor( dependency );
+			}
+			if ( injectron != null ) {
+				return new InjectronResolver<T>( dependency, injectron );
+			}
+			if ( type.arrayDimensions() == 1 ) {
+				return new InjectorResolver<T>( dependency, this );
+			}
+			if ( type.getRawType() == Injectron.class ) {
+				Injectron<?> i = applicableInjectron( injectronDependency( dependency ) );
+				if ( i != null ) {
+					return new ConstantResolver<T>( dependency, (T) i );
+				}
+			}
+			if ( type.getRawType() == Injector.class ) {
+				return new ConstantResolver<T>( dependency, (T) this );
+			}
 			throw noInjectronFor( dependency );
 		}
 
+		/**
+		 * @return The dependency on the {@link Injectron}'s instance for a dependency on an
+		 *         {@link Injectron}. The name is kept so that named {@link Injectron}s can be
+		 *         resolved.
+		 */
+		private static Dependency<?> injectronDependency( Dependency<?> dependency ) {
+			return dependency.onTypeParameter().named( dependency.getName() );
+		}
+
+		@SuppressWarnings ( "unchecked" )
 		private <T> Injectron<T> applicableInjectron( Dependency<T> dependency ) {
-			return mostPreciseOf( typeInjectrons( dependency.getType() ), dependency );
+			final Class<T> rawType = dependency.getType().getRawType();
+			if ( targeted.contains( rawType ) ) {
+				misses.incrementAndGet();
+				return mostPreciseOf( typeInjectrons( dependency.getType() ), dependency );
+			}
+			final Instance<T> instance = dependency.getInstance();
+			Resolution[] known = resolved.get( rawType );
+			if ( known != null ) {
+				for ( int i = 0; i < known.length; i++ ) {
+					if ( known[i].isFor( instance ) ) {
+						hits.incrementAndGet();
+						return (Injectron<T>) known[i].injectron;
+					}
+				}
+			}
+			misses.incrementAndGet();
+			Injectron<T> injectron = mostPreciseOf( typeInjectrons( dependency.getType() ),
+					dependency );
+			memorise( rawType, known, new Resolution( instance, injectron ) );
+			return injectron;
+		}
+
+		/**
+		 * Adds the {@link Resolution} unless the limit for the raw type is reached or another
+		 * thread changed the known ones in the meantime (it is just resolved again later).
+		 */
+		private void memorise( Class<?> rawType, Resolution[] known, Resolution resolution ) {
+			if ( known == null ) {
+				resolved.putIfAbsent( rawType, new Resolution[] { resolution } );
+			} else if ( known.length < MAX_RESOLUTIONS_PER_TYPE ) {
+				Resolution[] extended = Arrays.copyOf( known, known.length + 1 );
+				extended[known.length] = resolution;
+				resolved.replace( rawType, known, extended );
+			}
 		}
 
 		private static <T> Injectron<T> mostPreciseOf( Injectron<T>[] injectrons,
@@ -157,7 +379,8 @@ public final class Inject {
 			return new NoSuchResourceException( dependency, typeInjectrons( dependency.getType() ) );
 		}
 
-		private <T, E> T resolveArray( Dependency<T> dependency, Type<E> elementType ) {
+		private <T, E> T resolveArray( Dependency<T> dependency, Type<E> elementType,
+				boolean required ) {
 			if ( elementType.getRawType() == Injectron.class ) {
 				return resolveInjectronArray( dependency, elementType.parameter( 0 ) );
 			}
@@ -173,33 +396,28 @@ public final class Inject {
 			}
 			// if there hasn't been binds to that specific wildcard Type  
 			if ( elementType.isUpperBound() ) { // wildcard dependency:
+				//FIXME some of the injectrons are just bridges and such - no real values - recursion causes errors here
+				@SuppressWarnings ( "unchecked" )
+				Injectron<? extends E>[] candidates = (Injectron<? extends E>[]) upperBoundInjectrons( elementType );
 				List<E> elements = new ArrayList<E>();
-				for ( Entry<Class<?>, Injectron<?>[]> e : injectrons.entrySet() ) {
-					if ( Type.raw( e.getKey() ).isAssignableTo( elementType ) ) {
-						//FIXME some of the injectrons are just bridges and such - no real values - recursion causes errors here
-						@SuppressWarnings ( "unchecked" )
-						Injectron<? extends E>[] value = (Injectron<? extends E>[]) e.getValue();
-						addAllApplicable( elements, dependency, elementType, value );
-					}
-				}
+				addAllApplicable( elements, dependency, elementType, candidates );
 				return toArray( elements, elementType );
 			}
-			throw noInjectronFor( dependency );
+			if ( required ) {
+				throw noInjectronFor( dependency );
+			}
+			return null;
 		}
 
 		private <T, I> T resolveInjectronArray( Dependency<T> dependency, Type<I> instanceType ) {
 			Dependency<I> instanceDependency = dependency.typed( instanceType );
 			if ( instanceType.isUpperBound() ) {
 				List<Injectron<?>> res = new ArrayList<Injectron<?>>();
-				for ( Entry<Class<?>, Injectron<?>[]> e : injectrons.entrySet() ) {
-					if ( raw( e.getKey() ).isAssignableTo( instanceType ) ) {
-						@SuppressWarnings ( "unchecked" )
-						Injectron<? extends I>[] typeInjectrons = (Injectron<? extends I>[]) e.getValue();
-						for ( Injectron<? extends I> i : typeInjectrons ) {
-							if ( i.getResource().isSuitableFor( instanceDependency ) ) {
-								res.add( i );
-							}
-						}
+				@SuppressWarnings ( "unchecked" )
+				Injectron<? extends I>[] candidates = (Injectron<? extends I>[]) upperBoundInjectrons( instanceType );
+				for ( Injectron<? extends I> i : candidates ) {
+					if ( i.getResource().isSuitableFor( instanceDependency ) ) {
+						res.add( i );
 					}
 				}
 				return toArray( res, raw( Injectron.class ) );
@@ -214,6 +432,28 @@ public final class Inject {
 			return toArray( elements, raw( Injectron.class ) );
 		}
 
+		/**
+		 * @return All {@link Injectron}s whose raw type is assignable to the raw type of the given
+		 *         upper bound. Since the raw types of bound {@link Injectron}s are not
+		 *         parameterized this does not depend on the upper bound's type parameters.
+		 */
+		private Injectron<?>[] upperBoundInjectrons( Type<?> upperBound ) {
+			final Class<?> rawType = upperBound.getRawType();
+			Injectron<?>[] res = assignableInjectrons.get( rawType );
+			if ( res == null ) {
+				Class<?>[] subtypes = assignables.get( rawType );
+				List<Injectron<?>> candidates = new ArrayList<Injectron<?>>();
+				if ( subtypes != null ) {
+					for ( Class<?> subtype : subtypes ) {
+						candidates.addAll( Arrays.asList( injectrons.get( subtype ) ) );
+					}
+				}
+				res = candidates.toArray( new Injectron<?>[candidates.size()] );
+				assignableInjectrons.putIfAbsent( rawType, res );
+			}
+			return res;
+		}
+
 		private static <E, T> void addAllApplicable( List<E> elements, Dependency<T> dependency,
 				Type<E> elementType, Injectron<? extends E>[] elementInjectrons ) {
 			Dependency<E> elementDependency = dependency.typed( elementType );
@@ -251,6 +491,32 @@ public final class Inject {
 		}
 	}
 
+	/**
+	 * The {@link Injectron} applicable for an {@link Instance} (or <code>null</code> if there is
+	 * none) when the {@link Injectron}s of its raw type do not depend on the injection hierarchy.
+	 * 
+	 * Types are compared {@link Type#identicalTo(Type)} since upper bounds change the
+	 * assignability.
+	 * 
+	 * @author Jan Bernitt (jan@jbee.se)
+	 */
+	private static final class Resolution {
+
+		final Instance<?> instance;
+		final Injectron<?> injectron;
+
+		Resolution( Instance<?> instance, Injectron<?> injectron ) {
+			super();
+			this.instance = instance;
+			this.injectron = injectron;
+		}
+
+		boolean isFor( Instance<?> other ) {
+			return instance == other || instance.getName().equalTo( other.getName() )
+					&& instance.getType().identicalTo( other.getType() );
+		}
+	}
+
 	private static class StaticInjectron<T>
 			implements Injectron<T> {
 
@@ -297,6 +563,179 @@ public final class Inject {
 		public String toString() {
 			return demand.toString() + resource.getTarget().toString() + " " + source.toString();
 		}
+
+		Resolver<T> resolverFor( Dependency<T> dependency ) {
+			return new RepositoryResolver<T>( dependency, demand.from( dependency.injectingInto( emergence(
+					resource.getInstance(), expiry ) ) ), repository, injectable );
+		}
+	}
+
+	/**
+	 * A {@link StaticInjectron} for a {@link Repository} that has one instance per
+	 * {@link Resource} that never expires. Once the instance is created it is remembered and
+	 * returned without asking the {@link Repository} again.
+	 * 
+	 * @author Jan Bernitt (jan@jbee.se)
+	 */
+	private static final class PublishingInjectron<T>
+			extends StaticInjectron<T> {
+
+		private final InjectorMetrics.MeteredRepository metered;
+		private volatile T instance;
+
+		PublishingInjectron( Resource<T> resource, Source source, Demand<T> demand, Expiry expiry,
+				Repository repository, Injectable<T> injectable ) {
+			super( resource, source, demand, expiry, repository, injectable );
+			this.metered = repository instanceof InjectorMetrics.MeteredRepository
+				? (InjectorMetrics.MeteredRepository) repository
+				: null;
+		}
+
+		@Override
+		public T instanceFor( Dependency<? super T> dependency ) {
+			T res = instance;
+			if ( res == null ) {
+				res = super.instanceFor( dependency );
+				instance = res;
+			} else if ( metered != null ) {
+				metered.served(); // the repository is not asked again
+			}
+			return res;
+		}
+
+		@Override
+		Resolver<T> resolverFor( Dependency<T> dependency ) {
+			return new InjectronResolver<T>( dependency, this );
+		}
+	}
+
+	/**
+	 * A {@link Resolver} that already knows the {@link Demand} it will serve from the
+	 * {@link Repository} of the resolved {@link Injectron}.
+	 * 
+	 * @author Jan Bernitt (jan@jbee.se)
+	 */
+	private static final class RepositoryResolver<T>
+			implements Resolver<T> {
+
+		private final Dependency<T> dependency;
+		private final Demand<T> demand;
+		private final Repository repository;
+		private final Injectable<T> injectable;
+
+		RepositoryResolver( Dependency<T> dependency, Demand<T> demand, Repository repository,
+				Injectable<T> injectable ) {
+			super();
+			this.dependency = dependency;
+			this.demand = demand;
+			this.repository = repository;
+			this.injectable = injectable;
+		}
+
+		@Override
+		public T get() {
+			return repository.serve( demand, injectable );
+		}
+
+		@Override
+		public Dependency<T> getDependency() {
+			return dependency;
+		}
+
+		@Override
+		public String toString() {
+			return dependency + " => " + demand;
+		}
+	}
+
+	private static final class InjectronResolver<T>
+			implements Resolver<T> {
+
+		private final Dependency<T> dependency;
+		private final Injectron<T> injectron;
+
+		InjectronResolver( Dependency<T> dependency, Injectron<T> injectron ) {
+			super();
+			this.dependency = dependency;
+			this.injectron = injectron;
+		}
+
+		@Override
+		public T get() {
+			return injectron.instanceFor( dependency );
+		}
+
+		@Override
+		public Dependency<T> getDependency() {
+			return dependency;
+		}
+
+		@Override
+		public String toString() {
+			return dependency + " => " + injectron;
+		}
+	}
+
+	/**
+	 * Used for those dependencies that are not resolved by a single {@link Injectron} (like
+	 * arrays). These are resolved again each time.
+	 * 
+	 * @author Jan Bernitt (jan@jbee.se)
+	 */
+	private static final class InjectorResolver<T>
+			implements Resolver<T> {
+
+		private final Dependency<T> dependency;
+		private final Injector injector;
+
+		InjectorResolver( Dependency<T> dependency, Injector injector ) {
+			super();
+			this.dependency = dependency;
+			this.injector = injector;
+		}
+
+		@Override
+		public T get() {
+			return injector.resolve( dependency );
+		}
+
+		@Override
+		public Dependency<T> getDependency() {
+			return dependency;
+		}
+
+		@Override
+		public String toString() {
+			return dependency.toString();
+		}
+	}
+
+	private static final class ConstantResolver<T>
+			implements Resolver<T> {
+
+		private final Dependency<T> dependency;
+		private final T instance;
+
+		ConstantResolver( Dependency<T> dependency, T instance ) {
+			super();
+			this.dependency = dependency;
+			this.instance = instance;
+		}
+
+		@Override
+		public T get() {
+			return instance;
+		}
+
+		@Override
+		public Dependency<T> getDependency() {
+			return dependency;
+		}
+
+		@Override
+		public String toString() {
+			return dependency + " => " + instance;
+		}
 	}
 
 }
@@ -0,0 +1,323 @@
+/*
+ *  Copyright (c) 2012-2013, Jan Bernitt 
+ *			
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.util;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import se.jbee.inject.Demand;
+import se.jbee.inject.Dependency;
+import se.jbee.inject.Injectable;
+import se.jbee.inject.Injector;
+import se.jbee.inject.Injectron;
+import se.jbee.inject.Repository;
+import se.jbee.inject.Resource;
+import se.jbee.inject.Supplier;
+import se.jbee.inject.Type;
+
+/**
+ * Counts how often each {@link Resource} is resolved, how many instances are created for it and
+ * how long the creation took.
+ * 
+ * The metrics are opt-in: only {@link Suppliable}s passed through {@link #instrument(Suppliable[])}
+ * are measured. Injectors created without it do not pay anything for the metrics.
+ * 
+ * The time it takes to create an instance includes the time to resolve (and possibly create) the
+ * instances it depends upon. Creations that fail are counted as failures and do not contribute
+ * to the creation times.
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+public final class InjectorMetrics {
+
+	private final List<Meter> meters = new CopyOnWriteArrayList<Meter>();
+
+	/**
+	 * @return The given {@link Suppliable}s changed so that each of them is measured by this
+	 *         {@link InjectorMetrics}.
+	 */
+	public Suppliable<?>[] instrument( Suppliable<?>[] suppliables ) {
+		Suppliable<?>[] res = new Suppliable<?>[suppliables.length];
+		for ( int i = 0; i < res.length; i++ ) {
+			res[i] = instrument( suppliables[i] );
+		}
+		return res;
+	}
+
+	private <T> Suppliable<T> instrument( Suppliable<T> suppliable ) {
+		Meter meter = new Meter( suppliable.resource );
+		meters.add( meter );
+		return new Suppliable<T>( suppliable.resource, new MeteredSupplier<T>(
+				suppliable.supplier, meter ), new MeteredRepository( suppliable.repository, meter ),
+				suppliable.expiry, suppliable.source );
+	}
+
+	/**
+	 * @return The {@link Repository} measured by the given one or the given one if it is not
+	 *         measured.
+	 */
+	static Repository unmetered( Repository repository ) {
+		return repository instanceof MeteredRepository
+			? ( (MeteredRepository) repository ).repository
+			: repository;
+	}
+
+	/**
+	 * @return The current values for each measured {@link Resource} in the order they were
+	 *         instrumented.
+	 */
+	public Metric[] snapshot() {
+		Metric[] res = new Metric[meters.size()];
+		int i = 0;
+		for ( Meter m : meters ) {
+			if ( i < res.length ) {
+				res[i++] = m.snapshot();
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * @return A plain text export of the {@link #snapshot()} with one line per {@link Resource}.
+	 */
+	public String toText() {
+		StringBuilder b = new StringBuilder();
+		for ( Metric m : snapshot() ) {
+			b.append( m ).append( '\n' );
+		}
+		return b.toString();
+	}
+
+	@Override
+	public String toString() {
+		return toText();
+	}
+
+	/**
+	 * The values measured for a {@link Resource} at the time of the {@link #snapshot()}.
+	 * 
+	 * @author Jan Bernitt (jan@jbee.se)
+	 */
+	public static final class Metric {
+
+		public final Resource<?> resource;
+		/**
+		 * How often an instance has been served.
+		 */
+		public final long resolutions;
+		/**
+		 * How often a new instance has been created.
+		 */
+		public final long creations;
+		/**
+		 * How often the creation of a new instance failed with an exception.
+		 */
+		public final long failures;
+		/**
+		 * The sum of the nanoseconds of all creations.
+		 */
+		public final long creationNanos;
+		public final long maxCreationNanos;
+		private final long[] histogram;
+
+		Metric( Resource<?> resource, long resolutions, long creations, long failures,
+				long creationNanos, long maxCreationNanos, long[] histogram ) {
+			super();
+			this.resource = resource;
+			this.resolutions = resolutions;
+			this.creations = creations;
+			this.failures = failures;
+			this.creationNanos = creationNanos;
+			this.maxCreationNanos = maxCreationNanos;
+			this.histogram = histogram;
+		}
+
+		/**
+		 * @param percentile
+		 *            A value between 0 and 1
+		 * @return The upper bound (next power of 2) of the nanoseconds it took to create an
+		 *         instance that is greater or equal than the given percentile of all creations.
+		 */
+		public long creationNanos( double percentile ) {
+			long total = 0L;
+			for ( long count : histogram ) {
+				total += count;
+			}
+			if ( total == 0L ) {
+				return 0L;
+			}
+			long rank = (long) Math.ceil( percentile * total );
+			long seen = 0L;
+			for ( int i = 0; i < histogram.length; i++ ) {
+				seen += histogram[i];
+				if ( seen >= rank && seen > 0L ) {
+					return Math.min( maxCreationNanos, i == 0
+						? 0L
+						: i >= 63
+							? Long.MAX_VALUE
+							: 1L << i );
+				}
+			}
+			return maxCreationNanos;
+		}
+
+		@Override
+		public String toString() {
+			return resource + " resolutions=" + resolutions + " creations=" + creations
+					+ " failures=" + failures + " creation_ns_total=" + creationNanos + " creation_ns_p50="
+					+ creationNanos( 0.5d ) + " creation_ns_p99=" + creationNanos( 0.99d )
+					+ " creation_ns_max=" + maxCreationNanos;
+		}
+	}
+
+	/**
+	 * The measurements for a single {@link Resource}.
+	 */
+	private static final class Meter {
+
+		final Resource<?> resource;
+		final StripedCounter resolutions = new StripedCounter();
+		final StripedCounter creations = new StripedCounter();
+		final StripedCounter failures = new StripedCounter();
+		final StripedCounter creationNanos = new StripedCounter();
+		final AtomicLong maxCreationNanos = new AtomicLong();
+		/**
+		 * Index i counts creations that took less than 2^i nanoseconds (and at least 2^(i-1)).
+		 */
+		final AtomicLongArray histogram = new AtomicLongArray( 64 );
+
+		Meter( Resource<?> resource ) {
+			super();
+			this.resource = resource;
+		}
+
+		void created( long nanos ) {
+			creations.increment();
+			creationNanos.add( nanos );
+			histogram.incrementAndGet( 64 - Long.numberOfLeadingZeros( nanos ) );
+			long max = maxCreationNanos.get();
+			while ( nanos > max && !maxCreationNanos.compareAndSet( max, nanos ) ) {
+				max = maxCreationNanos.get();
+			}
+		}
+
+		Metric snapshot() {
+			long[] buckets = new long[histogram.length()];
+			for ( int i = 0; i < buckets.length; i++ ) {
+				buckets[i] = histogram.get( i );
+			}
+			return new Metric( resource, resolutions.sum(), creations.sum(), failures.sum(),
+					creationNanos.sum(), maxCreationNanos.get(), buckets );
+		}
+	}
+
+	/**
+	 * A counter that spreads concurrent updates over cells in different cache lines so that threads
+	 * do not contend on the same value.
+	 */
+	private static final class StripedCounter {
+
+		private static final int STRIPES = 8;
+		private static final int PADDING = 8; // longs of a 64 byte cache line
+
+		private final AtomicLongArray cells = new AtomicLongArray( STRIPES * PADDING );
+
+		StripedCounter() {
+			super();
+		}
+
+		void increment() {
+			add( 1L );
+		}
+
+		void add( long value ) {
+			long id = Thread.currentThread().getId();
+			int stripe = (int) ( ( id ^ ( id >>> 16 ) ) & ( STRIPES - 1 ) );
+			cells.addAndGet( stripe * PADDING, value );
+		}
+
+		long sum() {
+			long sum = 0L;
+			for ( int i = 0; i < STRIPES; i++ ) {
+				sum += cells.get( i * PADDING );
+			}
+			return sum;
+		}
+	}
+
+	private static final class MeteredSupplier<T>
+			implements Supplier<T>, Dependent {
+
+		private final Supplier<? extends T> supplier;
+		private final Meter meter;
+
+		MeteredSupplier( Supplier<? extends T> supplier, Meter meter ) {
+			super();
+			this.supplier = supplier;
+			this.meter = meter;
+		}
+
+		@Override
+		public T supply( Dependency<? super T> dependency, Injector injector ) {
+			final long start = System.nanoTime();
+			T res;
+			try {
+				res = supplier.supply( dependency, injector );
+			} catch ( RuntimeException e ) {
+				meter.failures.increment();
+				throw e;
+			} catch ( Error e ) {
+				meter.failures.increment();
+				throw e;
+			}
+			meter.created( System.nanoTime() - start );
+			return res;
+		}
+
+		@Override
+		public Type<?>[] dependencies() {
+			return supplier instanceof Dependent
+				? ( (Dependent) supplier ).dependencies()
+				: new Type<?>[0];
+		}
+
+		@Override
+		public String toString() {
+			return supplier.toString();
+		}
+	}
+
+	/**
+	 * Counts the resolutions of the {@link Repository} it wraps. A never expiring instance of a
+	 * per resource {@link Repository} is published by its {@link Injectron} and
+	 * not served again, so those resolutions are counted by the {@link Injectron}
+	 * through {@link #served()}.
+	 */
+	static final class MeteredRepository
+			implements Repository {
+
+		private final Repository repository;
+		private final Meter meter;
+
+		MeteredRepository( Repository repository, Meter meter ) {
+			super();
+			this.repository = repository;
+			this.meter = meter;
+		}
+
+		@Override
+		public <T> T serve( Demand<T> demand, Injectable<T> injectable ) {
+			served();
+			return repository.serve( demand, injectable );
+		}
+
+		void served() {
+			meter.resolutions.increment();
+		}
+	}
+}
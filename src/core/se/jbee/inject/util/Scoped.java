@@ -5,14 +5,22 @@
  */
 package se.jbee.inject.util;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+import se.jbee.inject.DIRuntimeException.DependencyCycleException;
 import se.jbee.inject.Demand;
 import se.jbee.inject.Dependency;
 import se.jbee.inject.Injectable;
+import se.jbee.inject.Instance;
+import se.jbee.inject.Name;
 import se.jbee.inject.Repository;
 import se.jbee.inject.Scope;
+import se.jbee.inject.Type;
 
 /**
  * Utility as a factory to create/use {@link Scope}s.
@@ -21,11 +29,39 @@ import se.jbee.inject.Scope;
  */
 public class Scoped {
 
+	/**
+	 * Deduces the key a instance is stored with in a {@link Scope} that creates one instance per
+	 * key.
+	 */
 	public interface KeyDeduction {
 
 		<T> String deduceKey( Demand<T> demand );
 	}
 
+	/**
+	 * A {@link KeyDeduction} that also deduces a key object that is cheaper to build and compare
+	 * than the {@link String} key. The built-in {@link KeyDeduction}s are such.
+	 */
+	private static abstract class StructuredKeyDeduction
+			implements KeyDeduction {
+
+		StructuredKeyDeduction() {
+			// make visible
+		}
+
+		/**
+		 * @return A key equal to the key of another {@link Demand} if and only if the
+		 *         {@link String} keys are equal.
+		 */
+		abstract <T> Object deduceStructuredKey( Demand<T> demand );
+	}
+
+	private static <T> Object keyOf( KeyDeduction keyDeduction, Demand<T> demand ) {
+		return keyDeduction instanceof StructuredKeyDeduction
+			? ( (StructuredKeyDeduction) keyDeduction ).deduceStructuredKey( demand )
+			: keyDeduction.deduceKey( demand );
+	}
+
 	public static final KeyDeduction DEPENDENCY_TYPE_KEY = new DependencyTypeAsKey();
 	public static final KeyDeduction DEPENDENCY_INSTANCE_KEY = new DependencyInstanceAsKey();
 	public static final KeyDeduction TARGET_INSTANCE_KEY = new TargetInstanceAsKey();
@@ -61,6 +97,15 @@ public class Scoped {
 		return new SnapshotRepository( src, dest );
 	}
 
+	/**
+	 * @return true, if the given {@link Repository} serves the same instance for each
+	 *         {@link Demand} of the same {@link se.jbee.inject.Resource} (like the
+	 *         {@link #APPLICATION} scope does).
+	 */
+	public static boolean isPerResource( Repository repository ) {
+		return repository instanceof ResourceRepository;
+	}
+
 	/**
 	 * What is usually called a 'default'-{@link Scope} will ask the {@link Injectable} passed each
 	 * time the {@link Repository#serve(Dependency, Injectable)}-method is invoked.
@@ -201,7 +246,7 @@ public class Scoped {
 	}
 
 	private static final class ConcatKeysDeduction
-			implements KeyDeduction {
+			extends StructuredKeyDeduction {
 
 		private final KeyDeduction first;
 		private final KeyDeduction second;
@@ -217,10 +262,20 @@ public class Scoped {
 			return first.deduceKey( demand ).concat( second.deduceKey( demand ) );
 		}
 
+		@Override
+		<T> Object deduceStructuredKey( Demand<T> demand ) {
+			return new PairKey( keyOf( first, demand ), keyOf( second, demand ) );
+		}
+
+		@Override
+		public String toString() {
+			return first + "+" + second;
+		}
+
 	}
 
 	private static final class TargetInstanceAsKey
-			implements KeyDeduction {
+			extends StructuredKeyDeduction {
 
 		TargetInstanceAsKey() {
 			// make visible
@@ -236,6 +291,11 @@ public class Scoped {
 			return b.toString();
 		}
 
+		@Override
+		<T> Object deduceStructuredKey( Demand<T> demand ) {
+			return new InstancesKey( demand.getDependency().targets() );
+		}
+
 		@Override
 		public String toString() {
 			return "target-instance";
@@ -244,7 +304,7 @@ public class Scoped {
 	}
 
 	private static final class DependencyTypeAsKey
-			implements KeyDeduction {
+			extends StructuredKeyDeduction {
 
 		DependencyTypeAsKey() {
 			// make visible
@@ -255,6 +315,11 @@ public class Scoped {
 			return demand.getDependency().getType().toString();
 		}
 
+		@Override
+		<T> Object deduceStructuredKey( Demand<T> demand ) {
+			return new TypeKey( demand.getDependency().getType() );
+		}
+
 		@Override
 		public String toString() {
 			return "dependendy-type";
@@ -263,7 +328,7 @@ public class Scoped {
 	}
 
 	private static final class DependencyInstanceAsKey
-			implements KeyDeduction {
+			extends StructuredKeyDeduction {
 
 		DependencyInstanceAsKey() {
 			// make visible
@@ -275,18 +340,135 @@ public class Scoped {
 					+ demand.getDependency().getType().toString();
 		}
 
+		@Override
+		<T> Object deduceStructuredKey( Demand<T> demand ) {
+			return new InstancesKey( demand.getDependency().getInstance() );
+		}
+
 		@Override
 		public String toString() {
-			return "dependendy-type";
+			return "dependendy-instance";
+		}
+	}
+
+	/**
+	 * A {@link Type} as key that is equal to another {@link TypeKey} if the types are
+	 * {@link Type#identicalTo(Type)}.
+	 * 
+	 * @author Jan Bernitt (jan@jbee.se)
+	 */
+	private static final class TypeKey {
+
+		private final Type<?> type;
+
+		TypeKey( Type<?> type ) {
+			super();
+			this.type = type;
+		}
+
+		@Override
+		public boolean equals( Object obj ) {
+			return obj instanceof TypeKey && type.identicalTo( ( (TypeKey) obj ).type );
+		}
+
+		@Override
+		public int hashCode() {
+			return type.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return type.toString();
+		}
+	}
+
+	/**
+	 * A sequence of {@link Instance}s as key. Two keys are equal if all their instances have equal
+	 * {@link Name}s and {@link Type#identicalTo(Type)} types.
+	 * 
+	 * @author Jan Bernitt (jan@jbee.se)
+	 */
+	private static final class InstancesKey {
+
+		private final Instance<?>[] instances;
+		private final int hash;
+
+		InstancesKey( Instance<?>... instances ) {
+			super();
+			this.instances = instances;
+			int h = 0;
+			for ( Instance<?> i : instances ) {
+				h = 31 * h + 31 * i.getName().hashCode() + i.getType().hashCode();
+			}
+			this.hash = h;
+		}
+
+		@Override
+		public boolean equals( Object obj ) {
+			if ( !( obj instanceof InstancesKey ) ) {
+				return false;
+			}
+			InstancesKey other = (InstancesKey) obj;
+			if ( hash != other.hash || instances.length != other.instances.length ) {
+				return false;
+			}
+			for ( int i = 0; i < instances.length; i++ ) {
+				Instance<?> one = instances[i];
+				Instance<?> another = other.instances[i];
+				if ( !one.getName().equalTo( another.getName() )
+						|| !one.getType().identicalTo( another.getType() ) ) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public String toString() {
+			return Arrays.toString( instances );
 		}
 	}
 
-	// e.g. get receiver class from dependency -to be reusable the provider could offer a identity --> a wrapper class would be needed anyway so maybe best is to have quite similar impl. all using a identity hash-map
+	private static final class PairKey {
+
+		private final Object first;
+		private final Object second;
+
+		PairKey( Object first, Object second ) {
+			super();
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		public boolean equals( Object obj ) {
+			if ( !( obj instanceof PairKey ) ) {
+				return false;
+			}
+			PairKey other = (PairKey) obj;
+			return first.equals( other.first ) && second.equals( other.second );
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * first.hashCode() + second.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return first + "+" + second;
+		}
+	}
 
 	private static final class KeyDeductionRepository
 			implements Repository {
 
-		private final Map<String, Object> instances = new HashMap<String, Object>();
+		private final ConcurrentMap<Object, Object> instances = new ConcurrentHashMap<Object, Object>();
 		private final KeyDeduction injectionKey;
 
 		KeyDeductionRepository( KeyDeduction injectionKey ) {
@@ -297,19 +479,45 @@ public class Scoped {
 		@Override
 		@SuppressWarnings ( "unchecked" )
 		public <T> T serve( Demand<T> demand, Injectable<T> injectable ) {
-			final String key = injectionKey.deduceKey( demand );
-			T instance = (T) instances.get( key );
-			if ( instance != null ) {
-				return instance;
+			final Object key = keyOf( injectionKey, demand );
+			Object res = instances.get( key );
+			if ( res != null && res.getClass() != Initialization.class ) {
+				return (T) res;
 			}
-			synchronized ( instances ) {
-				instance = (T) instances.get( key );
-				if ( instance == null ) {
-					instance = injectable.instanceFor( demand );
-					instances.put( key, instance );
+			return initialize( key, demand, injectable );
+		}
+
+		@SuppressWarnings ( "unchecked" )
+		private <T> T initialize( Object key, Demand<T> demand, Injectable<T> injectable ) {
+			while ( true ) {
+				Object current = instances.get( key );
+				if ( current == null ) {
+					Initialization init = new Initialization( Thread.currentThread() );
+					if ( instances.putIfAbsent( key, init ) == null ) {
+						return create( key, demand, injectable, init );
+					}
+				} else if ( current.getClass() == Initialization.class ) {
+					( (Initialization) current ).awaitFor( demand );
+				} else {
+					return (T) current;
+				}
+			}
+		}
+
+		private <T> T create( Object key, Demand<T> demand, Injectable<T> injectable,
+				Initialization init ) {
+			T res = null;
+			try {
+				res = injectable.instanceFor( demand );
+			} finally {
+				if ( res == null ) { // a failed initialization is tried again
+					instances.remove( key, init );
+				} else {
+					instances.replace( key, init, res );
 				}
+				init.done();
 			}
-			return instance;
+			return res;
 		}
 
 	}
@@ -342,12 +550,16 @@ public class Scoped {
 	 * Contains once instance per resource. Resources are never updated. This can be used to create
 	 * a thread or request {@link Scope}.
 	 * 
+	 * Each resource has its own slot so that independent instances can be created in parallel.
+	 * While an instance is created the slot contains a {@link Initialization} marker that other
+	 * threads wait for.
+	 * 
 	 * @author Jan Bernitt (jan@jbee.se)
 	 */
 	private static final class ResourceRepository
 			implements Repository {
 
-		private Object[] instances;
+		private volatile AtomicReferenceArray<Object> instances;
 
 		ResourceRepository() {
 			super();
@@ -356,24 +568,136 @@ public class Scoped {
 		@Override
 		@SuppressWarnings ( "unchecked" )
 		public <T> T serve( Demand<T> demand, Injectable<T> injectable ) {
-			if ( instances == null ) {
-				instances = new Object[demand.envCardinality()];
+			AtomicReferenceArray<Object> slots = instances;
+			if ( slots == null ) {
+				slots = slots( demand.envCardinality() );
 			}
-			T res = (T) instances[demand.envSerialNumber()];
-			if ( res != null ) {
-				return res;
+			Object res = slots.get( demand.envSerialNumber() );
+			if ( res != null && res.getClass() != Initialization.class ) {
+				return (T) res;
 			}
-			// just sync the (later) unexpected path that is executed once
-			synchronized ( instances ) {
-				res = (T) instances[demand.envSerialNumber()];
-				if ( res == null ) { // we need to ask again since the instance could have been initialized before we got entrance to the sync block
-					res = injectable.instanceFor( demand );
-					instances[demand.envSerialNumber()] = res;
+			return initialize( slots, demand, injectable );
+		}
+
+		private synchronized AtomicReferenceArray<Object> slots( int cardinality ) {
+			if ( instances == null ) {
+				instances = new AtomicReferenceArray<Object>( cardinality );
+			}
+			return instances;
+		}
+
+		@SuppressWarnings ( "unchecked" )
+		private <T> T initialize( AtomicReferenceArray<Object> slots, Demand<T> demand,
+				Injectable<T> injectable ) {
+			final int slot = demand.envSerialNumber();
+			while ( true ) {
+				Object current = slots.get( slot );
+				if ( current == null ) {
+					Initialization init = new Initialization( Thread.currentThread() );
+					if ( slots.compareAndSet( slot, null, init ) ) {
+						return create( slots, demand, injectable, init );
+					}
+				} else if ( current.getClass() == Initialization.class ) {
+					( (Initialization) current ).awaitFor( demand );
+				} else {
+					return (T) current;
 				}
 			}
+		}
+
+		private static <T> T create( AtomicReferenceArray<Object> slots, Demand<T> demand,
+				Injectable<T> injectable, Initialization init ) {
+			final int slot = demand.envSerialNumber();
+			T res = null;
+			try {
+				res = injectable.instanceFor( demand );
+			} finally {
+				slots.set( slot, res ); // a failed initialization is tried again
+				init.done();
+			}
 			return res;
 		}
+	}
+
+	/**
+	 * Marks a instance as being initialized by the {@link #creator} thread.
+	 * 
+	 * @author Jan Bernitt (jan@jbee.se)
+	 */
+	private static final class Initialization {
+
+		/**
+		 * The {@link Initialization} each thread currently waits for (if any). Used to detect
+		 * cycles between threads that would otherwise wait for each other forever. Checking for a
+		 * cycle and adding a thread's edge is done under the lock of the map so that two threads
+		 * cannot both miss the cycle they are about to form.
+		 */
+		private static final Map<Thread, Initialization> AWAITING = new HashMap<Thread, Initialization>();
+
+		final Thread creator;
+		private boolean done;
+
+		Initialization( Thread creator ) {
+			super();
+			this.creator = creator;
+		}
+
+		synchronized void done() {
+			done = true;
+			notifyAll();
+		}
+
+		/**
+		 * Waits for the initialization to be done.
+		 * 
+		 * @throws DependencyCycleException
+		 *             In case the current thread is the {@link #creator} or the creator
+		 *             (indirectly) waits for the current thread.
+		 */
+		void awaitFor( Demand<?> demand )
+				throws DependencyCycleException {
+			final Thread current = Thread.currentThread();
+			synchronized ( AWAITING ) {
+				if ( creator == current || isCreatedByAwaiting( current ) ) {
+					throw new DependencyCycleException( demand.getDependency(),
+							demand.getResource().getInstance() );
+				}
+				AWAITING.put( current, this );
+			}
+			try {
+				await();
+			} finally {
+				synchronized ( AWAITING ) {
+					AWAITING.remove( current );
+				}
+			}
+		}
+
+		private boolean isCreatedByAwaiting( Thread current ) {
+			Initialization awaited = AWAITING.get( creator );
+			int depth = 0;
+			while ( awaited != null && depth++ < AWAITING.size() ) {
+				if ( awaited.creator == current ) {
+					return true;
+				}
+				awaited = AWAITING.get( awaited.creator );
+			}
+			return false;
+		}
 
+		private synchronized void await() {
+			boolean interrupted = false;
+			while ( !done ) {
+				try {
+					wait();
+				} catch ( InterruptedException e ) {
+					interrupted = true;
+				}
+			}
+			if ( interrupted ) {
+				Thread.currentThread().interrupt();
+			}
+		}
 	}
 
 }
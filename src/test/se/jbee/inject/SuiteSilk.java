@@ -10,7 +10,7 @@ import se.jbee.inject.util.SuitUtil;
 
 @RunWith ( Suite.class )
 @SuiteClasses ( { TestName.class, TestType.class, TestPackages.class, TestMorePrecise.class,
-		TestTarget.class, TestDeclarationType.class, SuitUtil.class, SuiteBind.class,
+		TestTarget.class, TestDependency.class, TestDeclarationType.class, SuitUtil.class, SuiteBind.class,
 		SuiteService.class } )
 public class SuiteSilk {
 	// all project tests
@@ -0,0 +1,56 @@
+package se.jbee.inject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.Emergence.emergence;
+import static se.jbee.inject.Instance.defaultInstanceOf;
+import static se.jbee.inject.Type.raw;
+
+import org.junit.Test;
+
+import se.jbee.inject.DIRuntimeException.DependencyCycleException;
+import se.jbee.inject.DIRuntimeException.MoreFrequentExpiryException;
+
+public class TestDependency {
+
+	@Test
+	public void thatTargetsAreOrderedFromInnermostToOutermostLevel() {
+		Dependency<String> dependency = dependency( String.class ).injectingInto( Integer.class ).injectingInto(
+				Long.class );
+		assertEquals( 2, dependency.injectionDepth() );
+		Instance<?>[] targets = dependency.targets();
+		assertEquals( 2, targets.length );
+		assertSame( dependency.target( 0 ), targets[0] );
+		assertSame( dependency.target( 1 ), targets[1] );
+		assertEquals( raw( Long.class ), targets[0].getType() );
+	}
+
+	@Test
+	public void thatUninjectRemovesTheInnermostLevel() {
+		Dependency<String> dependency = dependency( String.class ).injectingInto( Integer.class ).injectingInto(
+				Long.class ).uninject();
+		assertEquals( 1, dependency.injectionDepth() );
+		assertEquals( raw( Integer.class ), dependency.target().getType() );
+		assertTrue( dependency.uninject().isUntargeted() );
+	}
+
+	@Test ( expected = DependencyCycleException.class )
+	public void thatCyclesAreDetectedAtAnyDepth() {
+		Dependency<String> dependency = dependency( String.class ).injectingInto( Integer.class );
+		for ( int i = 0; i < 100; i++ ) {
+			dependency = dependency.injectingInto( Instance.instance( Name.named( "level" + i ),
+					raw( Long.class ) ) );
+		}
+		dependency.injectingInto( Integer.class );
+	}
+
+	@Test ( expected = MoreFrequentExpiryException.class )
+	public void thatMoreFrequentExpiryThanAnyParentIsDetected() {
+		dependency( String.class ).injectingInto(
+				emergence( defaultInstanceOf( raw( Integer.class ) ), Expiry.expires( 2 ) ) ).injectingInto(
+				emergence( defaultInstanceOf( raw( Long.class ) ), Expiry.expires( 1 ) ) ).injectingInto(
+				emergence( defaultInstanceOf( raw( Short.class ) ), Expiry.expires( 2 ) ) );
+	}
+}
@@ -1,5 +1,6 @@
 package se.jbee.inject;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static se.jbee.inject.Name.named;
 
@@ -46,4 +47,29 @@ public class TestName {
 	public void anyShouldBeApplicableToWhateverName() {
 		assertTrue( Name.ANY.isApplicableFor( named( "foo" ) ) );
 	}
+
+	@Test
+	public void differentNameShouldNotBeApplicable() {
+		assertFalse( named( "foo" ).isApplicableFor( named( "bar" ) ) );
+	}
+
+	@Test
+	public void wildcardFollowedByEndOfNameShouldBeApplicable() {
+		assertTrue( named( "foo" ).isApplicableFor( named( "*oo" ) ) );
+		assertFalse( named( "foo" ).isApplicableFor( named( "*of" ) ) );
+	}
+
+	@Test
+	public void wildcardInTheMiddleShouldBeApplicable() {
+		assertTrue( named( "foobar" ).isApplicableFor( named( "foo*bar" ) ) );
+		assertTrue( named( "foo-x-bar" ).isApplicableFor( named( "f*-x-*r" ) ) );
+		assertFalse( named( "foobar" ).isApplicableFor( named( "foo*baz" ) ) );
+		assertFalse( named( "fooba" ).isApplicableFor( named( "foob*ba" ) ) );
+	}
+
+	@Test
+	public void regularExpressionCharactersShouldBeMatchedLiterally() {
+		assertTrue( named( "foo.bar" ).isApplicableFor( named( "foo.*" ) ) );
+		assertFalse( named( "fooxbar" ).isApplicableFor( named( "foo.b*" ) ) );
+	}
 }
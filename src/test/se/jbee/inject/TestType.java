@@ -1,6 +1,7 @@
 package se.jbee.inject;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
@@ -283,6 +284,39 @@ public class TestType {
 				raw( List.class ).parametized( Number.class ).parametizedAsUpperBounds() );
 	}
 
+	@Test
+	public void thatRawTypesAreCanonical() {
+		assertThat( raw( String.class ), sameInstance( raw( String.class ) ) );
+		assertThat( raw( int.class ), sameInstance( raw( int.class ) ) );
+	}
+
+	@Test
+	public void thatSupertypesCanBeAskedRepeatedly() {
+		Type<? extends List> listOfString = raw( List.class ).parametized( String.class );
+		Type<?>[] first = listOfString.supertypes();
+		Type<?> firstSupertype = first[0];
+		first[0] = raw( Integer.class );
+		assertTrue( listOfString.supertypes()[0].equalTo( firstSupertype ) );
+	}
+
+	@Test
+	public void thatAssignabilityIsSameWhenAskedRepeatedly() {
+		Type<? extends List> listOfInteger = raw( ArrayList.class ).parametized( Integer.class );
+		Type<? extends List> listOfNumbers = raw( List.class ).parametized( Number.class );
+		for ( int i = 0; i < 2; i++ ) {
+			assertFalse( listOfInteger.isAssignableTo( listOfNumbers ) );
+			assertTrue( listOfInteger.isAssignableTo( listOfNumbers.parametizedAsUpperBounds() ) );
+		}
+	}
+
+	@Test
+	public void thatUpperBoundsAreNotIdenticalToExactTypes() {
+		Type<? extends List> listOfNumbers = raw( List.class ).parametized( Number.class );
+		assertTrue( listOfNumbers.equalTo( listOfNumbers.parametizedAsUpperBounds() ) );
+		assertFalse( listOfNumbers.identicalTo( listOfNumbers.parametizedAsUpperBounds() ) );
+		assertTrue( listOfNumbers.identicalTo( raw( List.class ).parametized( Number.class ) ) );
+	}
+
 	private static void assertContains( Type<?>[] actual, Type<?> expected ) {
 		for ( Type<?> type : actual ) {
 			if ( type.equalTo( expected ) ) {
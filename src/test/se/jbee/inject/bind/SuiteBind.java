@@ -15,7 +15,10 @@ import org.junit.runners.Suite.SuiteClasses;
 		TestInspectorBinds.class, TestParentTargetBinds.class, TestPresetModuleBinds.class,
 		TestRequiredProvidedBinds.class, TestConfigurationDependentBinds.class,
 		TestPrimitiveArrayBinds.class, TestMultipleOptionChoicesBinds.class, TestMacroBinds.class,
-		TestBootstrapper.class, TestLinker.class, TestIssue1.class } )
+		TestBootstrapper.class, TestLinker.class, TestIssue1.class,
+		TestResolutionCacheBinds.class, TestResolverBinds.class, TestInvokerBinds.class,
+		TestUpperBoundBinds.class, TestEagerSingletonBinds.class,
+		TestBootstrapProfiler.class, TestInjectorMetrics.class } )
 public class SuiteBind {
 	// all tests in the bind package
 }
@@ -0,0 +1,106 @@
+package se.jbee.inject.bind;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static se.jbee.inject.Dependency.dependency;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import se.jbee.inject.Injector;
+import se.jbee.inject.bootstrap.Bindings;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.BootstrapListener.Phase;
+import se.jbee.inject.bootstrap.BootstrapProfiler;
+import se.jbee.inject.bootstrap.BootstrapProfiler.Record;
+import se.jbee.inject.bootstrap.BootstrapperBundle;
+import se.jbee.inject.bootstrap.Inspect;
+import se.jbee.inject.bootstrap.Macros;
+import se.jbee.inject.config.Globals;
+
+/**
+ * Shows how to find out which {@link Phase} of the bootstrapping and which bundle or module takes
+ * how long using a {@link BootstrapProfiler}.
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+public class TestBootstrapProfiler {
+
+	private static class ProfiledBundle
+			extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			install( SmallProfiledModule.class );
+			install( LargeProfiledModule.class );
+		}
+	}
+
+	private static class SmallProfiledModule
+			extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind( String.class ).to( "small" );
+		}
+	}
+
+	private static class LargeProfiledModule
+			extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind( Integer.class ).to( 42 );
+			bind( Long.class ).to( 42L );
+			bind( Float.class ).to( 42f );
+		}
+	}
+
+	private final BootstrapProfiler profiler = new BootstrapProfiler();
+	private final Injector injector = Bootstrap.injector( ProfiledBundle.class,
+			Bindings.bindings( Macros.DEFAULT, Inspect.DEFAULT ).observedBy( profiler ),
+			Globals.STANDARD );
+
+	@Test
+	public void thatEachPhaseIsRecordedOnce() {
+		assertEquals( 42, injector.resolve( dependency( Integer.class ) ).intValue() );
+		for ( Phase phase : new Phase[] { Phase.MODULARISE, Phase.EXPAND, Phase.DISAMBIGUATE,
+				Phase.LINK, Phase.INJECT } ) {
+			List<Record> records = profiler.records( phase );
+			assertEquals( 1, records.size() );
+			assertTrue( records.get( 0 ).nanos >= 0L );
+		}
+		assertEquals( 2, profiler.records( Phase.MODULARISE ).get( 0 ).items );
+		assertEquals( 4, profiler.records( Phase.EXPAND ).get( 0 ).items );
+	}
+
+	@Test
+	public void thatEachBundleAndModuleIsRecorded() {
+		List<Record> bundles = profiler.records( Phase.BUNDLE );
+		assertEquals( 3, bundles.size() ); // modules are bundles that install themselves
+		assertSame( SmallProfiledModule.class, bundles.get( 0 ).subject );
+		assertSame( LargeProfiledModule.class, bundles.get( 1 ).subject );
+		assertSame( ProfiledBundle.class, bundles.get( 2 ).subject );
+		assertEquals( 1, bundles.get( 0 ).items );
+		assertTrue( bundles.get( 2 ).nanos >= bundles.get( 1 ).nanos );
+		List<Record> modules = profiler.records( Phase.MODULE );
+		assertEquals( 2, modules.size() );
+		assertSame( SmallProfiledModule.class, modules.get( 0 ).subject );
+		assertEquals( 1, modules.get( 0 ).items );
+		assertSame( LargeProfiledModule.class, modules.get( 1 ).subject );
+		assertEquals( 3, modules.get( 1 ).items );
+		assertEquals( 1, profiler.slowest( Phase.MODULE, 1 ).size() );
+	}
+
+	@Test
+	public void thatTheReportIsJSON() {
+		String json = profiler.toJSON();
+		assertTrue( json.startsWith( "{\"bundle\":[{\"subject\":\"" ) );
+		assertTrue( json.contains( "\"module\":[" ) );
+		assertTrue( json.contains( "\"inject\":[{\"nanos\":" ) );
+		assertTrue( json.endsWith( "}]}" ) );
+		assertTrue( profiler.summary( 1 ).contains( "slowest modules:" ) );
+	}
+}
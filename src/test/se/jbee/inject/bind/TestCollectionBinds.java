@@ -3,6 +3,8 @@ package se.jbee.inject.bind;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertTrue;
+import static se.jbee.inject.Dependency.dependency;
 import static se.jbee.inject.Name.named;
 import static se.jbee.inject.Type.raw;
 import static se.jbee.inject.util.Typecast.collectionTypeOf;
@@ -81,6 +83,18 @@ public class TestCollectionBinds {
 				setTypeOf( Integer.class ) );
 	}
 
+	@Test
+	public void thatListOfNeverExpiringElementsIsModifiable() {
+		List<Integer> list = injector.resolve( dependency( listTypeOf( Integer.class ) ) );
+		assertTrue( list.add( 7 ) );
+	}
+
+	@Test
+	public void thatSetOfNeverExpiringElementsIsModifiable() {
+		Set<Integer> set = injector.resolve( dependency( setTypeOf( Integer.class ) ) );
+		assertTrue( set.add( 7 ) );
+	}
+
 	@Test
 	public void thatCollectionIsAvailable() {
 		Type<? extends Collection<?>> collectionType = Typecast.collectionTypeOf( Integer.class );
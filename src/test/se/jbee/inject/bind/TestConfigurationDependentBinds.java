@@ -211,6 +211,14 @@ public class TestConfigurationDependentBinds {
 		assertTrue( v.provide().valid( input ) );
 	}
 
+	@Test
+	public void thatReconfigurationIsResolvedToAnotherImplementationWhenSwitchedOften() {
+		Injector injector = Bootstrap.injector( ConfigurationDependentBindsModule2.class );
+		for ( int i = 0; i < 3; i++ ) {
+			assertReconfigurationIsResolvedToAnotherImplementation( injector );
+		}
+	}
+
 	@Test
 	public void thatReconfigurationResolvedUsingNamedInstances() {
 		assertConfigNumberResolvedToStringEnding( null, "undefined" );
@@ -0,0 +1,194 @@
+package se.jbee.inject.bind;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.util.Typecast.injectronTypeOf;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import se.jbee.inject.Injector;
+import se.jbee.inject.Injectron;
+import se.jbee.inject.Type;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.EagerSingletons;
+
+/**
+ * Shows how singletons are initialized concurrently in an order derived from their constructor
+ * parameters so that singletons are created after those they depend upon.
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+public class TestEagerSingletonBinds {
+
+	static final List<Class<?>> CREATED = new CopyOnWriteArrayList<Class<?>>();
+
+	static class Config {
+
+		Config() {
+			CREATED.add( Config.class );
+			try {
+				Thread.sleep( 20L ); // makes this chain the critical path for sure
+			} catch ( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	static class Repository {
+
+		final Config config;
+
+		Repository( Config config ) {
+			this.config = config;
+			CREATED.add( Repository.class );
+		}
+	}
+
+	static class Service {
+
+		final Repository repository;
+
+		Service( Repository repository ) {
+			this.repository = repository;
+			CREATED.add( Service.class );
+		}
+	}
+
+	static class Clock {
+
+		Clock() {
+			CREATED.add( Clock.class );
+		}
+	}
+
+	/**
+	 * Both {@link Left} and {@link Right} wait for each other. This only works out when they are
+	 * initialized at the same time.
+	 */
+	static volatile CountDownLatch meeting;
+
+	static boolean meet() {
+		meeting.countDown();
+		try {
+			return meeting.await( 2, TimeUnit.SECONDS );
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	static class Left {
+
+		final boolean met = meet();
+	}
+
+	static class Right {
+
+		final boolean met = meet();
+	}
+
+	static class ParallelSingletonBindsModule
+			extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind( Left.class ).toConstructor();
+			bind( Right.class ).toConstructor();
+		}
+	}
+
+	static class EagerSingletonBindsModule
+			extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind( Service.class ).toConstructor();
+			bind( Clock.class ).toConstructor();
+			bind( Repository.class ).toConstructor();
+			bind( Config.class ).toConstructor();
+		}
+	}
+
+	@Test
+	public void thatSingletonsAreInitializedAfterTheirDependencies() {
+		CREATED.clear();
+		Injector injector = Bootstrap.injector( EagerSingletonBindsModule.class );
+		ExecutorService executor = Executors.newFixedThreadPool( 4 );
+		try {
+			EagerSingletons report = Bootstrap.eagerSingletons( injector, executor );
+			assertEquals( 4, CREATED.size() );
+			assertTrue( CREATED.indexOf( Config.class ) < CREATED.indexOf( Repository.class ) );
+			assertTrue( CREATED.indexOf( Repository.class ) < CREATED.indexOf( Service.class ) );
+			assertTrue( report.count() >= 4 );
+			Service service = injector.resolve( dependency( Service.class ) );
+			assertSame( injector.resolve( dependency( Repository.class ) ), service.repository );
+			assertEquals( 4, CREATED.size() );
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void thatTheCriticalPathIsTheLongestChainOfDependencies() {
+		Injector injector = Bootstrap.injector( EagerSingletonBindsModule.class );
+		ExecutorService executor = Executors.newFixedThreadPool( 2 );
+		try {
+			EagerSingletons report = Bootstrap.eagerSingletons( injector, executor );
+			Injectron<?>[] path = report.criticalPath();
+			assertEquals( 3, path.length );
+			assertSame( injectron( injector, Config.class ), path[0] );
+			assertSame( injectron( injector, Repository.class ), path[1] );
+			assertSame( injectron( injector, Service.class ), path[2] );
+			assertTrue( report.nanos( path[2] ) >= 0L );
+			assertTrue( report.criticalPathNanos() >= report.nanos( path[2] ) );
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test ( timeout = 5000 )
+	public void thatIndependentSingletonsAreInitializedInParallel() {
+		meeting = new CountDownLatch( 2 );
+		Injector injector = Bootstrap.injector( ParallelSingletonBindsModule.class );
+		ExecutorService executor = Executors.newFixedThreadPool( 2 );
+		try {
+			Bootstrap.eagerSingletons( injector, executor );
+			assertTrue( injector.resolve( dependency( Left.class ) ).met );
+			assertTrue( injector.resolve( dependency( Right.class ) ).met );
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test ( timeout = 5000 )
+	public void thatSingletonsAreInitializedOnTheCallingThreadWhenTheExecutorRejectsThem() {
+		CREATED.clear();
+		Injector injector = Bootstrap.injector( EagerSingletonBindsModule.class );
+		Executor rejecting = new Executor() {
+
+			@Override
+			public void execute( Runnable command ) {
+				throw new RejectedExecutionException();
+			}
+		};
+		Bootstrap.eagerSingletons( injector, rejecting );
+		assertEquals( 4, CREATED.size() );
+		assertTrue( CREATED.indexOf( Config.class ) < CREATED.indexOf( Repository.class ) );
+		assertTrue( CREATED.indexOf( Repository.class ) < CREATED.indexOf( Service.class ) );
+	}
+
+	private static <T> Injectron<T> injectron( Injector injector, Class<T> type ) {
+		return injector.resolve( dependency( injectronTypeOf( Type.raw( type ) ) ) );
+	}
+}
@@ -1,8 +1,19 @@
 package se.jbee.inject.bind;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static se.jbee.inject.Dependency.dependency;
 import static se.jbee.inject.Name.named;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 import org.junit.Test;
 
 import se.jbee.inject.DIRuntimeException.NoSuchResourceException;
@@ -35,4 +46,51 @@ public class TestInjectorExceptions {
 		injector.resolve( dependency( Integer.class ).named( Name.DEFAULT ) );
 	}
 
+	@Test
+	public void thatTryResolveReturnsNullForAnUnboundDependency() {
+		assertNull( injector.tryResolve( dependency( String.class ) ) );
+		assertNull( injector.tryResolve( dependency( Integer.class ).named( Name.DEFAULT ) ) );
+		assertEquals( 7, injector.tryResolve( dependency( Integer.class ).named( "foo" ) ).intValue() );
+	}
+
+	@Test
+	public void thatTryResolveReturnsNullForAnArrayOfAnUnboundType() {
+		assertNull( injector.tryResolve( dependency( String[].class ) ) );
+	}
+
+	@Test ( expected = NoSuchResourceException.class )
+	public void thatExceptionIsThrownWhenResolvingAnArrayOfAnUnboundType() {
+		injector.resolve( dependency( String[].class ) );
+	}
+
+	@Test
+	public void thatExceptionMessageDescribesAvailableResources() {
+		try {
+			injector.resolve( dependency( Integer.class ).named( Name.DEFAULT ) );
+			fail( "Exception expected" );
+		} catch ( NoSuchResourceException e ) {
+			assertTrue( e.getMessage().contains( "foo" ) );
+			assertTrue( e.getMessage().contains( "bar" ) );
+			assertSame( e.getMessage(), e.getMessage() );
+		}
+	}
+
+	@Test
+	public void thatExceptionCanBeSerialized()
+			throws IOException, ClassNotFoundException {
+		try {
+			injector.resolve( dependency( Integer.class ).named( Name.DEFAULT ) );
+			fail( "Exception expected" );
+		} catch ( NoSuchResourceException e ) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			ObjectOutputStream out = new ObjectOutputStream( bytes );
+			out.writeObject( e );
+			out.close();
+			ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream(
+					bytes.toByteArray() ) );
+			NoSuchResourceException copy = (NoSuchResourceException) in.readObject();
+			assertEquals( e.getMessage(), copy.getMessage() );
+		}
+	}
+
 }
@@ -0,0 +1,152 @@
+package se.jbee.inject.bind;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.util.Typecast.injectronTypeOf;
+
+import org.junit.Test;
+
+import se.jbee.inject.Injector;
+import se.jbee.inject.Injectron;
+import se.jbee.inject.bootstrap.Bindings;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.Inspect;
+import se.jbee.inject.bootstrap.Link;
+import se.jbee.inject.bootstrap.Linker;
+import se.jbee.inject.bootstrap.Macros;
+import se.jbee.inject.config.Globals;
+import se.jbee.inject.util.InjectorMetrics;
+import se.jbee.inject.util.InjectorMetrics.Metric;
+import se.jbee.inject.util.Scoped;
+import se.jbee.inject.util.Suppliable;
+
+/**
+ * Shows how to find out how often which resource is resolved and created using
+ * {@link InjectorMetrics}.
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+public class TestInjectorMetrics {
+
+	static class Foo {
+
+		final String name;
+
+		Foo( String name ) {
+			this.name = name;
+		}
+	}
+
+	static class Bar {
+
+		Bar() {
+			// just to create it
+		}
+	}
+
+	static class Baz {
+
+		Baz() {
+			throw new IllegalStateException( "baz" );
+		}
+	}
+
+	static class InjectorMetricsModule
+			extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind( String.class ).to( "foo" );
+			per( Scoped.INJECTION ).bind( Foo.class ).toConstructor();
+			bind( Bar.class ).toConstructor();
+			per( Scoped.INJECTION ).bind( Baz.class ).toConstructor();
+		}
+	}
+
+	private final InjectorMetrics metrics = new InjectorMetrics();
+	private final Injector injector = injector( Link.metered( Link.BUILDIN, metrics ) );
+
+	@Test
+	public void thatTheMetricsCanBeResolved() {
+		assertSame( metrics, injector.resolve( dependency( InjectorMetrics.class ) ) );
+	}
+
+	@Test
+	public void thatResolutionsAndCreationsAreCountedPerResource() {
+		for ( int i = 0; i < 3; i++ ) {
+			assertEquals( "foo", injector.resolve( dependency( Foo.class ) ).name );
+			assertNotNull( injector.resolve( dependency( Bar.class ) ) );
+		}
+		Metric foo = metricOf( Foo.class );
+		assertEquals( 3, foo.resolutions );
+		assertEquals( 3, foo.creations );
+		assertTrue( foo.maxCreationNanos > 0L );
+		assertTrue( foo.creationNanos >= foo.maxCreationNanos );
+		assertTrue( foo.creationNanos( 0.99d ) <= foo.maxCreationNanos );
+		Metric bar = metricOf( Bar.class );
+		assertEquals( 3, bar.resolutions );
+		assertEquals( 1, bar.creations );
+		assertEquals( 3, metricOf( String.class ).resolutions );
+	}
+
+	@Test
+	public void thatFailedCreationsAreCountedAsFailures() {
+		for ( int i = 0; i < 2; i++ ) {
+			try {
+				injector.resolve( dependency( Baz.class ) );
+				fail( "Baz cannot be created" );
+			} catch ( RuntimeException e ) {
+				// expected
+			}
+		}
+		Metric baz = metricOf( Baz.class );
+		assertEquals( 2, baz.resolutions );
+		assertEquals( 0, baz.creations );
+		assertEquals( 2, baz.failures );
+		assertEquals( 0L, baz.creationNanos );
+	}
+
+	@Test
+	public void thatMeteredSingletonsAreServedLikeUnmeteredOnes() {
+		Injector unmetered = injector( Link.BUILDIN );
+		assertSame( injectronOf( unmetered, Bar.class ).getClass(),
+				injectronOf( injector, Bar.class ).getClass() );
+		Injectron<Bar> bar = injectronOf( injector, Bar.class );
+		Bar first = bar.instanceFor( dependency( Bar.class ) );
+		for ( int i = 0; i < 3; i++ ) {
+			assertSame( first, bar.instanceFor( dependency( Bar.class ) ) );
+		}
+		assertEquals( 4, metricOf( Bar.class ).resolutions );
+		assertEquals( 1, metricOf( Bar.class ).creations );
+	}
+
+	@Test
+	public void thatMetricsAreExportedAsPlainText() {
+		injector.resolve( dependency( Bar.class ) );
+		String text = metrics.toText();
+		assertTrue( text.contains( "resolutions=1 creations=1" ) );
+		assertEquals( metrics.snapshot().length, text.split( "\n" ).length );
+	}
+
+	private static Injector injector( Linker<Suppliable<?>> linker ) {
+		return Bootstrap.injector( Bindings.bindings( Macros.DEFAULT, Inspect.DEFAULT ), linker,
+				Bootstrap.modulariser( Globals.STANDARD ).modularise( InjectorMetricsModule.class ) );
+	}
+
+	private static <T> Injectron<T> injectronOf( Injector injector, Class<T> type ) {
+		return injector.resolve( dependency( injectronTypeOf( type ) ) );
+	}
+
+	private Metric metricOf( Class<?> type ) {
+		for ( Metric m : metrics.snapshot() ) {
+			if ( m.resource.getType().getRawType() == type ) {
+				return m;
+			}
+		}
+		throw new AssertionError( "No metric for " + type );
+	}
+}
@@ -46,6 +46,14 @@ public class TestInjectronBinds {
 		assertThat( injectron.instanceFor( dependency( String.class ) ), is( "foobar" ) );
 	}
 
+	@Test
+	public void thatNamedInjectronIsAvailableForNamedResource() {
+		Dependency<? extends Injectron<String>> dependency = dependency(
+				injectronTypeOf( String.class ) ).named( "special" );
+		Injectron<String> injectron = injector.resolve( dependency );
+		assertThat( injectron.instanceFor( dependency( String.class ) ), is( "special" ) );
+	}
+
 	@Test
 	public void thatInjectronArrayIsAvailableForEveryBoundResource() {
 		Dependency<? extends Injectron<String>[]> dependency = dependency( injectronsTypeOf( String.class ) );
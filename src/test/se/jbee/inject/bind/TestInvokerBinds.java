@@ -0,0 +1,162 @@
+package se.jbee.inject.bind;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.bootstrap.Inspect.all;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import se.jbee.inject.Injector;
+import se.jbee.inject.bootstrap.Bindings;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.Inspect;
+import se.jbee.inject.bootstrap.Invoke;
+import se.jbee.inject.bootstrap.Invoker;
+import se.jbee.inject.bootstrap.Macros;
+import se.jbee.inject.config.Globals;
+import se.jbee.inject.util.Scoped;
+
+/**
+ * Shows how to choose the {@link Invoker} used to call constructors and producer methods. Here the
+ * {@link Invoke#METHOD_HANDLES} are used instead of the default {@link Invoke#REFLECTION}.
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+public class TestInvokerBinds {
+
+	private static class Foo {
+
+		final String name;
+		final int number;
+
+		@SuppressWarnings ( "unused" )
+		Foo( String name, Integer number ) {
+			this.name = name;
+			this.number = number;
+		}
+	}
+
+	private static class Bar {
+
+		Bar() {
+			throw new IllegalStateException( "Cannot be constructed" );
+		}
+	}
+
+	private static class Baz {
+
+		Baz()
+				throws IOException {
+			throw new IOException( "Cannot be constructed" );
+		}
+	}
+
+	static class InvokerBindsModule
+			extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind( String.class ).to( "foo" );
+			per( Scoped.INJECTION ).bind( Foo.class ).toConstructor();
+			bind( Bar.class ).toConstructor();
+			bind( Baz.class ).toConstructor();
+			bind( all().methods() ).inModule();
+			bind( all().methods() ).in( InvokerBindsImplementor.class );
+		}
+
+		static int staticFactoryMethod() {
+			return 42;
+		}
+
+		static short uncheckedFailingFactoryMethod() {
+			throw new IllegalStateException( "Cannot be produced" );
+		}
+
+		static byte checkedFailingFactoryMethod()
+				throws IOException {
+			throw new IOException( "Cannot be produced" );
+		}
+	}
+
+	static class InvokerBindsImplementor {
+
+		long instanceFactoryMethod( int factor ) {
+			return factor * 2L;
+		}
+	}
+
+	private static final Invoker[] INVOKERS = { Invoke.REFLECTION, Invoke.METHOD_HANDLES };
+
+	private final Injector injector = injector( Invoke.METHOD_HANDLES );
+
+	@Test
+	public void thatConstructorsAreInvokedByTheChosenInvoker() {
+		Foo foo = injector.resolve( dependency( Foo.class ) );
+		assertEquals( "foo", foo.name );
+		assertEquals( 42, foo.number );
+		assertNotSame( foo, injector.resolve( dependency( Foo.class ) ) );
+	}
+
+	@Test
+	public void thatStaticMethodsAreInvokedByTheChosenInvoker() {
+		assertEquals( 42, injector.resolve( dependency( int.class ) ).intValue() );
+	}
+
+	@Test
+	public void thatInstanceMethodsAreInvokedByTheChosenInvoker() {
+		assertEquals( 84L, injector.resolve( dependency( long.class ) ).longValue() );
+	}
+
+	@Test
+	public void thatUncheckedExceptionsThrownByConstructorsArePropagatedUnwrapped() {
+		for ( Invoker invoker : INVOKERS ) {
+			try {
+				injector( invoker ).resolve( dependency( Bar.class ) );
+				fail( "Exception expected using " + invoker );
+			} catch ( IllegalStateException e ) {
+				assertEquals( "Cannot be constructed", e.getMessage() );
+			}
+		}
+	}
+
+	@Test
+	public void thatCheckedExceptionsThrownByConstructorsAreWrapped() {
+		for ( Invoker invoker : INVOKERS ) {
+			try {
+				injector( invoker ).resolve( dependency( Baz.class ) );
+				fail( "Exception expected using " + invoker );
+			} catch ( RuntimeException e ) {
+				assertTrue( e.getCause() instanceof IOException );
+			}
+		}
+	}
+
+	@Test
+	public void thatExceptionsThrownByMethodsAreTreatedTheSameByAllInvokers() {
+		for ( Invoker invoker : INVOKERS ) {
+			Injector injector = injector( invoker );
+			try {
+				injector.resolve( dependency( short.class ) );
+				fail( "Exception expected using " + invoker );
+			} catch ( IllegalStateException e ) {
+				assertEquals( "Cannot be produced", e.getMessage() );
+			}
+			try {
+				injector.resolve( dependency( byte.class ) );
+				fail( "Exception expected using " + invoker );
+			} catch ( RuntimeException e ) {
+				assertTrue( e.getCause() instanceof IOException );
+			}
+		}
+	}
+
+	private static Injector injector( Invoker invoker ) {
+		return Bootstrap.injector( InvokerBindsModule.class, Bindings.bindings(
+				Macros.DEFAULT.invokedBy( invoker ), Inspect.DEFAULT ), Globals.STANDARD );
+	}
+}
@@ -18,6 +18,7 @@ import java.util.Set;
 import org.junit.Test;
 
 import se.jbee.inject.DIRuntimeException.MoreFrequentExpiryException;
+import se.jbee.inject.Dependency;
 import se.jbee.inject.Injector;
 import se.jbee.inject.Instance;
 import se.jbee.inject.Name;
@@ -149,6 +150,21 @@ public class TestProviderBinds {
 		assertNotNull( obj.state() ); // if expiry is a problem this will throw an exception
 	}
 
+	@Test
+	public void thatProviderProvidesNewPerInjectionInstanceEachTime() {
+		WorkingStateConsumer obj = injector.resolve( dependency( WorkingStateConsumer.class ) );
+		DynamicState first = obj.state();
+		assertNotNull( first );
+		assertNotSame( first, obj.state() );
+		assertNotSame( first, obj.state() );
+	}
+
+	@Test
+	public void thatProviderIsSharedForTheSameDependency() {
+		Dependency<Provider<String>> dependency = dependency( providerTypeOf( String.class ) );
+		assertSame( injector.resolve( dependency ), injector.resolve( dependency ) );
+	}
+
 	private <T> void assertInjectsProviderFor( T expected, Type<? extends T> dependencyType ) {
 		assertInjectsProviderFor( expected, dependencyType, Name.ANY );
 	}
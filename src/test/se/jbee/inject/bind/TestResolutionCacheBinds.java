@@ -0,0 +1,89 @@
+package se.jbee.inject.bind;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.Name.named;
+
+import org.junit.Test;
+
+import se.jbee.inject.Dependency;
+import se.jbee.inject.Injector;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.util.Inject.SourcedInjector;
+
+/**
+ * Tests that the memorised resolution of {@link Dependency}s within the {@link SourcedInjector}
+ * does not change the result of a resolution.
+ */
+public class TestResolutionCacheBinds {
+
+	private static class ResolutionCacheBindsModule
+			extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind( String.class ).to( "default" );
+			bind( named( "special" ), String.class ).to( "special" );
+			injectingInto( Integer.class ).bind( String.class ).to( "integer" );
+			bind( Integer.class ).to( 42 );
+		}
+
+	}
+
+	private final Injector injector = Bootstrap.injector( ResolutionCacheBindsModule.class );
+
+	@Test
+	public void thatRepeatedResolutionIsAnsweredFromCache() {
+		SourcedInjector sourced = (SourcedInjector) injector;
+		Dependency<Integer> dependency = dependency( Integer.class );
+		injector.resolve( dependency );
+		long hits = sourced.resolutionCacheHits();
+		long misses = sourced.resolutionCacheMisses();
+		assertThat( injector.resolve( dependency ), is( 42 ) );
+		assertThat( injector.resolve( dependency( Integer.class ).injectingInto( Float.class ) ),
+				is( 42 ) );
+		assertEquals( hits + 2, sourced.resolutionCacheHits() );
+		assertEquals( misses, sourced.resolutionCacheMisses() );
+	}
+
+	@Test
+	public void thatResolutionOfTargetedTypesIsNotCached() {
+		SourcedInjector sourced = (SourcedInjector) injector;
+		injector.resolve( dependency( String.class ) );
+		long hits = sourced.resolutionCacheHits();
+		assertThat( injector.resolve( dependency( String.class ) ), is( "default" ) );
+		assertEquals( hits, sourced.resolutionCacheHits() );
+	}
+
+	@Test
+	public void thatCachedResolutionsAreLimitedPerType() {
+		SourcedInjector sourced = (SourcedInjector) injector;
+		for ( int i = 0; i < 100; i++ ) {
+			injector.tryResolve( dependency( Integer.class ).named( "unknown" + i ) );
+		}
+		long misses = sourced.resolutionCacheMisses();
+		assertThat( injector.tryResolve( dependency( Integer.class ).named( "unknown99" ) ),
+				is( (Integer) null ) );
+		assertEquals( misses + 1, sourced.resolutionCacheMisses() );
+		assertThat( injector.resolve( dependency( Integer.class ) ), is( 42 ) );
+	}
+
+	@Test
+	public void thatCachedResolutionDistinguishesNames() {
+		assertThat( injector.resolve( dependency( String.class ) ), is( "default" ) );
+		assertThat( injector.resolve( dependency( String.class ).named( "special" ) ),
+				is( "special" ) );
+		assertThat( injector.resolve( dependency( String.class ) ), is( "default" ) );
+	}
+
+	@Test
+	public void thatCachedResolutionDistinguishesTargets() {
+		assertThat( injector.resolve( dependency( String.class ) ), is( "default" ) );
+		assertThat( injector.resolve( dependency( String.class ).injectingInto( Integer.class ) ),
+				is( "integer" ) );
+		assertThat( injector.resolve( dependency( String.class ).injectingInto( Float.class ) ),
+				is( "default" ) );
+	}
+}
@@ -0,0 +1,76 @@
+package se.jbee.inject.bind;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.Name.named;
+
+import org.junit.Test;
+
+import se.jbee.inject.DIRuntimeException.NoSuchResourceException;
+import se.jbee.inject.Injector;
+import se.jbee.inject.Resolver;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.util.Scoped;
+
+public class TestResolverBinds {
+
+	private static class Prototype {
+
+		@SuppressWarnings ( "unused" )
+		Prototype() {
+			// make visible
+		}
+	}
+
+	private static class ResolverBindsModule
+			extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind( String.class ).to( "foo" );
+			bind( named( "bar" ), String.class ).to( "bar" );
+			per( Scoped.INJECTION ).construct( Prototype.class );
+			construct( Object.class );
+		}
+
+	}
+
+	private final Injector injector = Bootstrap.injector( ResolverBindsModule.class );
+
+	@Test
+	public void thatResolverYieldsSameInstanceAsInjector() {
+		Resolver<String> resolver = injector.resolver( dependency( String.class ) );
+		assertThat( resolver.get(), is( "foo" ) );
+		assertThat( injector.resolver( dependency( String.class ).named( "bar" ) ).get(),
+				is( "bar" ) );
+	}
+
+	@Test
+	public void thatResolverRespectsScopes() {
+		Resolver<Object> singleton = injector.resolver( dependency( Object.class ) );
+		assertThat( singleton.get(), sameInstance( singleton.get() ) );
+		assertThat( singleton.get(), sameInstance( injector.resolve( dependency( Object.class ) ) ) );
+		Resolver<Prototype> prototype = injector.resolver( dependency( Prototype.class ) );
+		assertThat( prototype.get(), not( sameInstance( prototype.get() ) ) );
+	}
+
+	@Test
+	public void thatResolverCanResolveArrays() {
+		assertEquals( 2, injector.resolver( dependency( String[].class ) ).get().length );
+	}
+
+	@Test
+	public void thatResolverCanResolveInjector() {
+		assertThat( injector.resolver( dependency( Injector.class ) ).get(),
+				sameInstance( injector ) );
+	}
+
+	@Test ( expected = NoSuchResourceException.class )
+	public void thatExceptionIsThrownWhenCreatingResolverForAnUnboundDependency() {
+		injector.resolver( dependency( Integer.class ) );
+	}
+}
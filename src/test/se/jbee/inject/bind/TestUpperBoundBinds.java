@@ -0,0 +1,67 @@
+package se.jbee.inject.bind;
+
+import static org.junit.Assert.assertEquals;
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.Type.raw;
+import static se.jbee.inject.bind.AssertInjects.assertEqualSets;
+import static se.jbee.inject.util.Typecast.injectronsTypeOf;
+
+import java.io.Serializable;
+
+import org.junit.Test;
+
+import se.jbee.inject.Injector;
+import se.jbee.inject.Injectron;
+import se.jbee.inject.Type;
+import se.jbee.inject.bootstrap.Bootstrap;
+
+/**
+ * Demonstrates how to resolve all instances whose type is assignable to a common supertype by
+ * asking for an upper bound array like <code>? extends Number[]</code>.
+ * 
+ * @author Jan Bernitt (jan@jbee.se)
+ */
+public class TestUpperBoundBinds {
+
+	private static class UpperBoundBindsModule
+			extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind( Integer.class ).to( 42 );
+			bind( Long.class ).to( 7L );
+			bind( Float.class ).to( 3f );
+			bind( String.class ).to( "not a number" );
+			bind( Integer[].class ).to( new Integer[] { 1, 2 } );
+		}
+	}
+
+	private final Injector injector = Bootstrap.injector( UpperBoundBindsModule.class );
+
+	@Test
+	public void thatAllInstancesAssignableToTheUpperBoundAreResolved() {
+		Type<? extends Number[]> numbers = raw( Number[].class ).asUpperBound();
+		assertEqualSets( new Number[] { 42, 7L, 3f }, injector.resolve( dependency( numbers ) ) );
+	}
+
+	@Test
+	public void thatInterfacesCanBeUsedAsUpperBound() {
+		Type<? extends Comparable[]> comparables = raw( Comparable[].class ).asUpperBound();
+		assertEqualSets( new Comparable<?>[] { 42, 7L, 3f, "not a number" },
+				injector.resolve( dependency( comparables ) ) );
+	}
+
+	@Test
+	public void thatArraysAreAssignableToTheirSupertypes() {
+		Type<? extends Serializable[]> serializables = raw( Serializable[].class ).asUpperBound();
+		Serializable[] res = injector.resolve( dependency( serializables ) );
+		assertEquals( 5, res.length );
+	}
+
+	@Test
+	public void thatAllInjectronsAssignableToTheUpperBoundAreResolved() {
+		Injectron<? extends Number>[] injectrons = injector.resolve( dependency( injectronsTypeOf( raw(
+				Number.class ).asUpperBound() ) ) );
+		assertEquals( 3, injectrons.length );
+	}
+}
@@ -6,7 +6,10 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith ( Suite.class )
 @SuiteClasses ( { TestServiceMethodBinds.class, TestServiceBinds.class, TestCommandBinds.class,
-		TestServiceInspectorBinds.class, TestExtensionBinds.class, TestServiceInvocationBinds.class } )
+		TestServiceInspectorBinds.class, TestExtensionBinds.class, TestServiceInvocationBinds.class,
+		TestAsyncServiceMethodBinds.class, TestBatchServiceMethodBinds.class,
+		TestServiceStatisticsBinds.class, TestServiceMemoizationBinds.class,
+		TestServiceBulkheadBinds.class } )
 public class SuiteService {
 	// all tests in the service package
 }
@@ -0,0 +1,134 @@
+package se.jbee.inject.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.Type.raw;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import se.jbee.inject.Dependency;
+import se.jbee.inject.Injector;
+import se.jbee.inject.Type;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.BootstrapperBundle;
+import se.jbee.inject.service.ServiceInvocation.ServiceInvocationExtension;
+import se.jbee.inject.util.Value;
+
+public class TestAsyncServiceMethodBinds {
+
+	static final NamedThreadExecutor EXECUTOR = new NamedThreadExecutor();
+
+	private static class AsyncServiceMethodBindsModule
+			extends ServiceModule {
+
+		@Override
+		protected void declare() {
+			bindServiceMethodsIn( MyExecutedService.class );
+			bindServiceMethodsIn( MyDefaultService.class );
+			executeServiceMethodsIn( MyExecutedService.class, EXECUTOR );
+			extend( ServiceInvocationExtension.RETURN_TYPE, ThreadInvocation.class );
+		}
+
+	}
+
+	private static class AsyncServiceMethodBindsBundle
+			extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			install( AsyncServiceMethodBindsModule.class );
+		}
+
+	}
+
+	static class MyExecutedService {
+
+		public String threadName( Integer value ) {
+			return Thread.currentThread().getName() + value;
+		}
+	}
+
+	static class MyDefaultService {
+
+		public Thread thread( String value ) {
+			return Thread.currentThread();
+		}
+	}
+
+	static final class NamedThreadExecutor
+			implements Executor {
+
+		@Override
+		public void execute( Runnable command ) {
+			new Thread( command, "executor" ).start();
+		}
+	}
+
+	static class ThreadInvocation
+			implements ServiceInvocation<Thread> {
+
+		volatile Thread beforeThread;
+		volatile Thread afterThread;
+
+		@Override
+		public <P, R> Thread before( Value<P> parameter, Type<R> result ) {
+			return Thread.currentThread();
+		}
+
+		@Override
+		public <P, R> void after( Value<P> parameter, Value<R> result, Thread before ) {
+			beforeThread = before;
+			afterThread = Thread.currentThread();
+		}
+
+		@Override
+		public <P, R> void afterException( Value<P> parameter, Type<R> result, Exception e,
+				Thread before ) {
+			// not tested
+		}
+	}
+
+	private final Injector injector = Bootstrap.injector( AsyncServiceMethodBindsBundle.class );
+
+	@SuppressWarnings ( "unchecked" )
+	@Test
+	public void thatServiceIsExecutedByTheExecutorBoundForItsClass()
+			throws Exception {
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<AsyncServiceMethod> dependency = dependency( raw( AsyncServiceMethod.class ).parametized(
+				Integer.class, String.class ) );
+		AsyncServiceMethod<Integer, String> threadName = injector.resolve( dependency );
+		Future<String> res = threadName.invoke( 42 );
+		assertEquals( "executor42", res.get() );
+	}
+
+	@SuppressWarnings ( "unchecked" )
+	@Test
+	public void thatServiceIsExecutedOnAnotherThreadByDefault()
+			throws Exception {
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<AsyncServiceMethod> dependency = dependency( raw( AsyncServiceMethod.class ).parametized(
+				String.class, Thread.class ) );
+		AsyncServiceMethod<String, Thread> thread = injector.resolve( dependency );
+		assertNotSame( Thread.currentThread(), thread.invoke( "foo" ).get() );
+	}
+
+	@SuppressWarnings ( "unchecked" )
+	@Test
+	public void thatInvocationsAreInvokedOnTheExecutingThread()
+			throws Exception {
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<AsyncServiceMethod> dependency = dependency( raw( AsyncServiceMethod.class ).parametized(
+				String.class, Thread.class ) );
+		AsyncServiceMethod<String, Thread> thread = injector.resolve( dependency );
+		ThreadInvocation inv = injector.resolve( dependency( ThreadInvocation.class ) );
+		Thread executing = thread.invoke( "foo" ).get();
+		assertSame( executing, inv.beforeThread );
+		assertSame( executing, inv.afterThread );
+	}
+}
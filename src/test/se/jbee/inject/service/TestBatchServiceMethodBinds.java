@@ -0,0 +1,159 @@
+package se.jbee.inject.service;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.Type.raw;
+import static se.jbee.inject.util.Typecast.listTypeOf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import se.jbee.inject.Dependency;
+import se.jbee.inject.Injector;
+import se.jbee.inject.Type;
+import se.jbee.inject.bind.BinderModule;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.BootstrapperBundle;
+import se.jbee.inject.service.ServiceInvocation.ServiceInvocationExtension;
+import se.jbee.inject.util.Scoped;
+import se.jbee.inject.util.Value;
+
+public class TestBatchServiceMethodBinds {
+
+	private static class BatchServiceMethodBindsModule
+			extends ServiceModule {
+
+		@Override
+		protected void declare() {
+			bindServiceMethodsIn( MyBatchService.class );
+			extend( ServiceInvocationExtension.RETURN_TYPE, CountingInvocation.class );
+		}
+
+	}
+
+	private static class BatchArgumentModule
+			extends BinderModule {
+
+		@Override
+		protected void declare() {
+			per( Scoped.INJECTION ).bind( Buffer.class ).toConstructor();
+		}
+
+	}
+
+	private static class BatchServiceMethodBindsBundle
+			extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			install( BatchServiceMethodBindsModule.class );
+			install( BatchArgumentModule.class );
+		}
+
+	}
+
+	static class Buffer {
+
+		final StringBuilder chars = new StringBuilder();
+	}
+
+	static class MyBatchService {
+
+		public String append( Character value, Buffer buffer ) {
+			return buffer.chars.append( value ).toString();
+		}
+
+		public String lower( String value ) {
+			return value.toLowerCase();
+		}
+
+		public Character lower( Character value ) {
+			return Character.toLowerCase( value );
+		}
+
+		public List<String> upper( List<String> values ) {
+			List<String> res = new ArrayList<String>();
+			for ( String value : values ) {
+				res.add( value.toUpperCase() );
+			}
+			return res;
+		}
+	}
+
+	static class CountingInvocation
+			implements ServiceInvocation<Void> {
+
+		final List<Type<?>> parameterTypes = new ArrayList<Type<?>>();
+		final List<Type<?>> resultTypes = new ArrayList<Type<?>>();
+
+		@Override
+		public <P, R> Void before( Value<P> parameter, Type<R> result ) {
+			parameterTypes.add( parameter.getType() );
+			return null;
+		}
+
+		@Override
+		public <P, R> void after( Value<P> parameter, Value<R> result, Void before ) {
+			resultTypes.add( result.getType() );
+		}
+
+		@Override
+		public <P, R> void afterException( Value<P> parameter, Type<R> result, Exception e,
+				Void before ) {
+			// not tested
+		}
+	}
+
+	private final Injector injector = Bootstrap.injector( BatchServiceMethodBindsBundle.class );
+
+	@SuppressWarnings ( "unchecked" )
+	@Test
+	public void thatArgumentsAreResolvedOncePerBatch() {
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<BatchServiceMethod> dependency = dependency( raw( BatchServiceMethod.class ).parametized(
+				Character.class, String.class ) );
+		BatchServiceMethod<Character, String> append = injector.resolve( dependency );
+		assertEquals( asList( "a", "ab", "abc" ), append.invokeAll( asList( 'a', 'b', 'c' ) ) );
+		assertEquals( asList( "x" ), append.invokeAll( asList( 'x' ) ) );
+	}
+
+	@SuppressWarnings ( "unchecked" )
+	@Test
+	public void thatInvocationsAreInvokedOncePerBatch() {
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<BatchServiceMethod> dependency = dependency( raw( BatchServiceMethod.class ).parametized(
+				Character.class, String.class ) );
+		BatchServiceMethod<Character, String> append = injector.resolve( dependency );
+		CountingInvocation inv = injector.resolve( dependency( CountingInvocation.class ) );
+		int before = inv.parameterTypes.size();
+		append.invokeAll( asList( 'a', 'b', 'c' ) );
+		assertEquals( before + 1, inv.parameterTypes.size() );
+		assertEquals( before + 1, inv.resultTypes.size() );
+		assertTrue( inv.parameterTypes.get( before ).equalTo( listTypeOf( Character.class ) ) );
+		assertTrue( inv.resultTypes.get( before ).equalTo( listTypeOf( String.class ) ) );
+	}
+
+	@SuppressWarnings ( "unchecked" )
+	@Test
+	public void thatServiceWithoutInjectedArgumentsCanBeBatched() {
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<BatchServiceMethod> dependency = dependency( raw( BatchServiceMethod.class ).parametized(
+				Character.class, Character.class ) );
+		BatchServiceMethod<Character, Character> lower = injector.resolve( dependency );
+		assertEquals( asList( 'a', 'b' ), lower.invokeAll( asList( 'A', 'B' ) ) );
+	}
+
+	@SuppressWarnings ( "unchecked" )
+	@Test
+	public void thatServiceMethodAcceptingAListIsUsedWhenBound() {
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<BatchServiceMethod> dependency = dependency( raw( BatchServiceMethod.class ).parametized(
+				String.class, String.class ) );
+		BatchServiceMethod<String, String> batch = injector.resolve( dependency );
+		assertEquals( asList( "A", "B" ), batch.invokeAll( asList( "a", "b" ) ) );
+	}
+}
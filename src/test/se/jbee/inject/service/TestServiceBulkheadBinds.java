@@ -0,0 +1,146 @@
+package se.jbee.inject.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.Type.raw;
+import static se.jbee.inject.service.Bulkhead.bulkhead;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import se.jbee.inject.Dependency;
+import se.jbee.inject.Injector;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.service.Bulkhead.RejectedCallException;
+import se.jbee.inject.service.ServiceInvocation.ServiceInvocationExtension;
+import se.jbee.inject.service.ServiceStatistics.Metric;
+
+public class TestServiceBulkheadBinds {
+
+	static final Bulkhead FAIL_FAST = bulkhead( 1 );
+	static final Bulkhead QUEUING = bulkhead( 1 ).queuing( 10, TimeUnit.SECONDS );
+
+	private static class ServiceBulkheadBindsModule
+			extends ServiceModule {
+
+		@Override
+		protected void declare() {
+			bindServiceMethodsIn( MyGateService.class );
+			bindServiceMethodsIn( MyQueuedGateService.class );
+			limitServiceMethodsIn( MyGateService.class, FAIL_FAST );
+			limitServiceMethod( MyQueuedGateService.class, "pass", QUEUING );
+			extend( ServiceInvocationExtension.RETURN_TYPE, ServiceStatistics.Recorder.class );
+		}
+
+	}
+
+	static final class Gate {
+
+		final CountDownLatch entered = new CountDownLatch( 1 );
+		final CountDownLatch opened = new CountDownLatch( 1 );
+	}
+
+	static final class QueuedGate {
+
+		final Gate gate = new Gate();
+	}
+
+	static class MyGateService {
+
+		public Gate pass( Gate gate )
+				throws InterruptedException {
+			gate.entered.countDown();
+			gate.opened.await();
+			return gate;
+		}
+	}
+
+	static class MyQueuedGateService {
+
+		public QueuedGate pass( QueuedGate gate )
+				throws InterruptedException {
+			new MyGateService().pass( gate.gate );
+			return gate;
+		}
+	}
+
+	private final Injector injector = Bootstrap.injector( ServiceBulkheadBindsModule.class );
+
+	@SuppressWarnings ( "unchecked" )
+	@Test
+	public void thatCallsExceedingTheLimitAreRejected()
+			throws InterruptedException {
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<ServiceMethod> dependency = dependency( raw( ServiceMethod.class ).parametized(
+				Gate.class, Gate.class ) );
+		final ServiceMethod<Gate, Gate> pass = injector.resolve( dependency );
+		final Gate gate = new Gate();
+		Thread holder = callInThread( pass, gate );
+		gate.entered.await();
+		long rejections = FAIL_FAST.rejections();
+		try {
+			Gate other = new Gate();
+			other.opened.countDown();
+			pass.invoke( other );
+			fail( "Expected call to be rejected" );
+		} catch ( RejectedExecutionException e ) {
+			assertTrue( e instanceof RejectedCallException );
+		} finally {
+			gate.opened.countDown();
+			holder.join();
+		}
+		assertEquals( rejections + 1, FAIL_FAST.rejections() );
+		assertEquals( 1, FAIL_FAST.available() );
+		Gate open = new Gate();
+		open.opened.countDown();
+		assertSame( open, pass.invoke( open ) );
+		Metric m = injector.resolve( dependency( ServiceStatistics.class ) ).metric(
+				raw( Gate.class ), raw( Gate.class ) );
+		assertEquals( 2L, m.calls ); // the rejected call is not counted
+		assertEquals( 0L, m.errors );
+	}
+
+	@SuppressWarnings ( "unchecked" )
+	@Test
+	public void thatCallsExceedingTheLimitWaitWhenQueuing()
+			throws InterruptedException {
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<ServiceMethod> dependency = dependency( raw( ServiceMethod.class ).parametized(
+				QueuedGate.class, QueuedGate.class ) );
+		ServiceMethod<QueuedGate, QueuedGate> pass = injector.resolve( dependency );
+		QueuedGate first = new QueuedGate();
+		QueuedGate second = new QueuedGate();
+		Thread firstCaller = callInThread( pass, first );
+		first.gate.entered.await();
+		Thread secondCaller = callInThread( pass, second );
+		while ( secondCaller.getState() != Thread.State.TIMED_WAITING ) {
+			Thread.sleep( 1L );
+		}
+		assertEquals( 1L, second.gate.entered.getCount() ); // still waiting for a permit
+		first.gate.opened.countDown();
+		second.gate.entered.await();
+		second.gate.opened.countDown();
+		firstCaller.join();
+		secondCaller.join();
+		assertEquals( 0L, QUEUING.rejections() );
+		assertTrue( QUEUING.waitNanos() > 0L );
+	}
+
+	private static <T> Thread callInThread( final ServiceMethod<T, T> service, final T param ) {
+		Thread res = new Thread( new Runnable() {
+
+			@Override
+			public void run() {
+				service.invoke( param );
+			}
+		} );
+		res.start();
+		return res;
+	}
+}
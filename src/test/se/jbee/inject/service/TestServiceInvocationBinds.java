@@ -2,18 +2,23 @@ package se.jbee.inject.service;
 
 import static junit.framework.Assert.fail;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static se.jbee.inject.Dependency.dependency;
 import static se.jbee.inject.Type.raw;
 
+import java.lang.reflect.InvocationTargetException;
+
 import org.junit.Test;
 
 import se.jbee.inject.Dependency;
 import se.jbee.inject.Injector;
 import se.jbee.inject.Type;
+import se.jbee.inject.bind.BinderModule;
 import se.jbee.inject.bootstrap.Bootstrap;
 import se.jbee.inject.bootstrap.BootstrapperBundle;
 import se.jbee.inject.service.ServiceInvocation.ServiceInvocationExtension;
+import se.jbee.inject.util.Scoped;
 import se.jbee.inject.util.Value;
 
 public class TestServiceInvocationBinds {
@@ -83,6 +88,140 @@ public class TestServiceInvocationBinds {
 
 	}
 
+	private static class TargetedServiceInvocationBindsModule
+			extends ServiceModule {
+
+		@Override
+		protected void declare() {
+			bindServiceMethodsIn( TextService.class );
+			bindServiceMethodsIn( NumberService.class );
+			extend( ServiceInvocationExtension.RETURN_TYPE, Number.class, ReturnInvocation.class );
+			extend( ServiceInvocationExtension.PARAMETER_TYPE, CharSequence.class,
+					ParameterInvocation.class );
+			extend( ServiceInvocationExtension.DEFINING_TYPE, TextService.class,
+					DefiningInvocation.class );
+			extend( ServiceInvocationExtension.RETURN_TYPE, Boolean.class,
+					DefiningInvocation.class );
+		}
+
+	}
+
+	static class TextService {
+
+		public Integer length( String value ) {
+			return value.length();
+		}
+	}
+
+	static class NumberService {
+
+		public Boolean isZero( Long value ) {
+			return value == 0L;
+		}
+
+		public Long negate( Long value ) {
+			return -value;
+		}
+	}
+
+	static abstract class CountingInvocation
+			implements ServiceInvocation<Void> {
+
+		int count;
+
+		@Override
+		public <P, R> Void before( Value<P> parameter, Type<R> result ) {
+			count++;
+			return null;
+		}
+
+		@Override
+		public <P, R> void after( Value<P> parameter, Value<R> result, Void before ) {
+			// just count before
+		}
+
+		@Override
+		public <P, R> void afterException( Value<P> parameter, Type<R> result, Exception e,
+				Void before ) {
+			// just count before
+		}
+	}
+
+	static class ReturnInvocation
+			extends CountingInvocation {
+		// counts services returning numbers
+	}
+
+	static class ParameterInvocation
+			extends CountingInvocation {
+		// counts services with text parameters
+	}
+
+	static class DefiningInvocation
+			extends CountingInvocation {
+		// counts services of the text service or returning booleans
+	}
+
+	private static class FailingServiceInvocationBindsModule
+			extends ServiceModule {
+
+		@Override
+		protected void declare() {
+			bindServiceMethodsIn( FailingService.class );
+			extend( ServiceInvocationExtension.DEFINING_TYPE, FailingService.class,
+					RecordingInvocation.class );
+		}
+	}
+
+	private static class UnresolvableArgumentModule
+			extends BinderModule {
+
+		@Override
+		protected void declare() {
+			per( Scoped.INJECTION ).bind( Unresolvable.class ).toConstructor();
+		}
+	}
+
+	private static class FailingServiceInvocationBindsBundle
+			extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			install( FailingServiceInvocationBindsModule.class );
+			install( UnresolvableArgumentModule.class );
+		}
+	}
+
+	static class Unresolvable {
+
+		Unresolvable() {
+			throw new IllegalStateException( "unresolvable" );
+		}
+	}
+
+	static class FailingService {
+
+		public Character error( Long value ) {
+			throw new LinkageError( String.valueOf( value ) );
+		}
+
+		public Integer unresolvable( Short value, Unresolvable argument ) {
+			return value.intValue();
+		}
+	}
+
+	static class RecordingInvocation
+			extends CountingInvocation {
+
+		Exception afterException;
+
+		@Override
+		public <P, R> void afterException( Value<P> parameter, Type<R> result, Exception e,
+				Void before ) {
+			afterException = e;
+		}
+	}
+
 	private final Injector injector = Bootstrap.injector( ServiceInvocationBindsBundle.class );
 	private final AssertInvocation inv = injector.resolve( dependency( AssertInvocation.class ) );
 
@@ -118,4 +257,78 @@ public class TestServiceInvocationBinds {
 		}
 		fail( "Exception expected" );
 	}
+
+	@SuppressWarnings ( "unchecked" )
+	@Test
+	public void thatJustInvocationsTargetingTheServiceMethodAreInvoked() {
+		Injector injector = Bootstrap.injector( TargetedServiceInvocationBindsModule.class );
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<ServiceMethod> lengthDependency = dependency( raw( ServiceMethod.class ).parametized(
+				String.class, Integer.class ) );
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<ServiceMethod> isZeroDependency = dependency( raw( ServiceMethod.class ).parametized(
+				Long.class, Boolean.class ) );
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<ServiceMethod> negateDependency = dependency( raw( ServiceMethod.class ).parametized(
+				Long.class, Long.class ) );
+		ServiceMethod<String, Integer> length = injector.resolve( lengthDependency );
+		ServiceMethod<Long, Boolean> isZero = injector.resolve( isZeroDependency );
+		ServiceMethod<Long, Long> negate = injector.resolve( negateDependency );
+		CountingInvocation returns = injector.resolve( dependency( ReturnInvocation.class ) );
+		CountingInvocation parameters = injector.resolve( dependency( ParameterInvocation.class ) );
+		CountingInvocation defining = injector.resolve( dependency( DefiningInvocation.class ) );
+		length.invoke( "foo" );
+		assertEquals( 1, returns.count );
+		assertEquals( 1, parameters.count );
+		assertEquals( 1, defining.count );
+		isZero.invoke( 0L );
+		assertEquals( 1, returns.count );
+		assertEquals( 1, parameters.count );
+		assertEquals( 2, defining.count );
+		negate.invoke( 1L );
+		assertEquals( 2, returns.count );
+		assertEquals( 1, parameters.count );
+		assertEquals( 2, defining.count );
+	}
+
+	@SuppressWarnings ( "unchecked" )
+	@Test
+	public void thatInvocationIsInvokedAfterErrorInTheServiceMethodCall() {
+		Injector injector = Bootstrap.injector( FailingServiceInvocationBindsBundle.class );
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<ServiceMethod> dependency = dependency( raw( ServiceMethod.class ).parametized(
+				Long.class, Character.class ) );
+		ServiceMethod<Long, Character> error = injector.resolve( dependency );
+		RecordingInvocation inv = injector.resolve( dependency( RecordingInvocation.class ) );
+		try {
+			error.invoke( 42L );
+		} catch ( RuntimeException e ) {
+			assertTrue( e.getCause() instanceof InvocationTargetException );
+			assertTrue( e.getCause().getCause() instanceof LinkageError );
+			assertEquals( 1, inv.count );
+			assertSame( e.getCause(), inv.afterException );
+			return;
+		}
+		fail( "Exception expected" );
+	}
+
+	@SuppressWarnings ( "unchecked" )
+	@Test
+	public void thatArgumentsThatCannotBeResolvedFailBeforeTheInvocation() {
+		Injector injector = Bootstrap.injector( FailingServiceInvocationBindsBundle.class );
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<ServiceMethod> dependency = dependency( raw( ServiceMethod.class ).parametized(
+				Short.class, Integer.class ) );
+		ServiceMethod<Short, Integer> unresolvable = injector.resolve( dependency );
+		RecordingInvocation inv = injector.resolve( dependency( RecordingInvocation.class ) );
+		try {
+			unresolvable.invoke( (short) 1 );
+		} catch ( IllegalStateException e ) {
+			assertEquals( "unresolvable", e.getMessage() );
+			assertEquals( 0, inv.count );
+			assertEquals( null, inv.afterException );
+			return;
+		}
+		fail( "Exception expected" );
+	}
 }
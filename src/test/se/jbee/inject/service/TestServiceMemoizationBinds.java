@@ -0,0 +1,136 @@
+package se.jbee.inject.service;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.Type.raw;
+import static se.jbee.inject.service.Memoization.memoization;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import se.jbee.inject.Dependency;
+import se.jbee.inject.Injector;
+import se.jbee.inject.bootstrap.Bootstrap;
+
+public class TestServiceMemoizationBinds {
+
+	static final Memoization SQUARES = memoization( 2 );
+	static final Memoization LENGTHS = memoization( 10 ).expiringAfter( 200, TimeUnit.MILLISECONDS );
+
+	private static class ServiceMemoizationBindsModule
+			extends ServiceModule {
+
+		@Override
+		protected void declare() {
+			bindServiceMethodsIn( MySquareService.class );
+			bindServiceMethodsIn( MyTextService.class );
+			memoizeServiceMethodsIn( MySquareService.class, SQUARES );
+			memoizeServiceMethod( MyTextService.class, "length", LENGTHS );
+		}
+
+	}
+
+	static class MySquareService {
+
+		int computations;
+
+		public Long square( Long value ) {
+			computations++;
+			return value * value;
+		}
+	}
+
+	static class MyTextService {
+
+		int computations;
+
+		public Integer length( String value ) {
+			computations++;
+			return value.length();
+		}
+
+		public Boolean isEmpty( String value ) {
+			computations++;
+			return value.isEmpty();
+		}
+	}
+
+	private final Injector injector = Bootstrap.injector( ServiceMemoizationBindsModule.class );
+
+	@SuppressWarnings ( "unchecked" )
+	@Test
+	public void thatResultsAreCachedAndLeastRecentlyUsedAreEvicted() {
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<ServiceMethod> dependency = dependency( raw( ServiceMethod.class ).parametized(
+				Long.class, Long.class ) );
+		ServiceMethod<Long, Long> square = injector.resolve( dependency );
+		MySquareService service = injector.resolve( dependency( MySquareService.class ) );
+		long hits = SQUARES.hits();
+		long evictions = SQUARES.evictions();
+		assertEquals( 9L, square.invoke( 3L ).longValue() );
+		assertEquals( 9L, square.invoke( 3L ).longValue() );
+		assertEquals( 1, service.computations );
+		assertEquals( hits + 1, SQUARES.hits() );
+		square.invoke( 4L );
+		square.invoke( 5L ); // 3 is evicted
+		assertEquals( evictions + 1, SQUARES.evictions() );
+		square.invoke( 3L );
+		assertEquals( 4, service.computations );
+	}
+
+	@SuppressWarnings ( "unchecked" )
+	@Test
+	public void thatBatchesUseTheCache() {
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<BatchServiceMethod> dependency = dependency( raw( BatchServiceMethod.class ).parametized(
+				Long.class, Long.class ) );
+		BatchServiceMethod<Long, Long> square = injector.resolve( dependency );
+		MySquareService service = injector.resolve( dependency( MySquareService.class ) );
+		assertEquals( asList( 4L, 4L, 4L ), square.invokeAll( asList( 2L, 2L, 2L ) ) );
+		assertEquals( 1, service.computations );
+	}
+
+	@SuppressWarnings ( "unchecked" )
+	@Test
+	public void thatOnlyTheMemoizedMethodIsCached()
+			throws InterruptedException {
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<ServiceMethod> lengthDependency = dependency( raw( ServiceMethod.class ).parametized(
+				String.class, Integer.class ) );
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<ServiceMethod> isEmptyDependency = dependency( raw( ServiceMethod.class ).parametized(
+				String.class, Boolean.class ) );
+		ServiceMethod<String, Integer> length = injector.resolve( lengthDependency );
+		ServiceMethod<String, Boolean> isEmpty = injector.resolve( isEmptyDependency );
+		MyTextService service = injector.resolve( dependency( MyTextService.class ) );
+		length.invoke( "foo" );
+		length.invoke( "foo" );
+		assertEquals( 1, service.computations );
+		isEmpty.invoke( "foo" );
+		isEmpty.invoke( "foo" );
+		assertEquals( 3, service.computations );
+		Thread.sleep( 300L );
+		length.invoke( "foo" ); // expired
+		assertEquals( 4, service.computations );
+	}
+
+	@Test
+	public void thatSegmentedCachesHoldAtMostMaxSizeResults() {
+		Memoization memoization = memoization( 64 );
+		Memoization.Cache cache = memoization.newCache();
+		for ( int i = 0; i < 1000; i++ ) {
+			cache.put( i, i );
+			assertEquals( i, cache.get( i ) );
+		}
+		assertEquals( 1000L - 64L, memoization.evictions() );
+		int cached = 0;
+		for ( int i = 0; i < 1000; i++ ) {
+			if ( cache.get( i ) != Memoization.Cache.MISS ) {
+				cached++;
+			}
+		}
+		assertEquals( 64, cached );
+	}
+}
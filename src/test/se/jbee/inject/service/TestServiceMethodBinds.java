@@ -2,15 +2,21 @@ package se.jbee.inject.service;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static se.jbee.inject.Dependency.dependency;
 import static se.jbee.inject.Type.raw;
 
 import org.junit.Test;
 
+import se.jbee.inject.DIRuntimeException.AmbiguousFunctionException;
+import se.jbee.inject.DIRuntimeException.NoSuchFunctionException;
 import se.jbee.inject.Dependency;
 import se.jbee.inject.Injector;
+import se.jbee.inject.bind.BinderModule;
 import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.BootstrapperBundle;
+import se.jbee.inject.util.Scoped;
 
 public class TestServiceMethodBinds {
 
@@ -43,6 +49,130 @@ public class TestServiceMethodBinds {
 		}
 	}
 
+	private static class AmbiguousServiceBindsModule
+			extends ServiceModule {
+
+		@Override
+		protected void declare() {
+			bindServiceMethodsIn( MyAmbiguousService.class );
+		}
+
+	}
+
+	static class MyAmbiguousService {
+
+		public int length( String value ) {
+			return value.length();
+		}
+
+		public int hash( String value ) {
+			return value.hashCode();
+		}
+
+		public int count() {
+			return 2;
+		}
+
+		public String describeInteger( Integer value, ServiceMethod<Void, Integer> count ) {
+			return "int" + value * count.invoke( null );
+		}
+
+		public String describeLong( Long value, ServiceMethod<Void, Integer> count ) {
+			return "long" + value * count.invoke( null );
+		}
+	}
+
+	private static class InjectedArgumentServiceBindsModule
+			extends ServiceModule {
+
+		@Override
+		protected void declare() {
+			bindServiceMethodsIn( MyInjectedArgumentService.class );
+		}
+
+	}
+
+	private static class InjectedArgumentModule
+			extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind( Integer.class ).to( 3 );
+			per( Scoped.INJECTION ).bind( Buffer.class ).toConstructor();
+		}
+
+	}
+
+	private static class InjectedArgumentServiceBindsBundle
+			extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			install( InjectedArgumentServiceBindsModule.class );
+			install( InjectedArgumentModule.class );
+		}
+
+	}
+
+	static class Buffer {
+
+		final StringBuilder chars = new StringBuilder();
+	}
+
+	static class MyInjectedArgumentService {
+
+		public String repeat( Buffer buffer, Character value, Integer times ) {
+			for ( int i = 0; i < times; i++ ) {
+				buffer.chars.append( value );
+			}
+			return buffer.chars.toString();
+		}
+	}
+
+	@Test ( expected = AmbiguousFunctionException.class )
+	public void thatAmbiguousServiceMethodsAreDetectedWhenRequested() {
+		Injector injector = Bootstrap.injector( AmbiguousServiceBindsModule.class );
+		injector.resolve( dependency( ServiceProvider.class ) ).provide( raw( String.class ),
+				raw( Integer.class ) );
+	}
+
+	@Test
+	public void thatInjectedParametersOfSameTypeDoNotMakeOtherServiceMethodsAmbiguous() {
+		Injector injector = Bootstrap.injector( AmbiguousServiceBindsModule.class );
+		ServiceProvider provider = injector.resolve( dependency( ServiceProvider.class ) );
+		assertThat( provider.provide( raw( Integer.class ), raw( String.class ) ).invoke( 3 ),
+				is( "int6" ) );
+		assertThat( provider.provide( raw( Long.class ), raw( String.class ) ).invoke( 4L ),
+				is( "long8" ) );
+	}
+
+	@Test ( expected = NoSuchFunctionException.class )
+	public void thatUnknownServiceMethodSignatureIsDetected() {
+		Injector injector = Bootstrap.injector( ServiceBindsModule.class );
+		injector.resolve( dependency( ServiceProvider.class ) ).provide( raw( String.class ),
+				raw( Integer.class ) );
+	}
+
+	@Test
+	public void thatServiceMethodsAreCreatedOncePerSignature() {
+		Injector injector = Bootstrap.injector( ServiceBindsModule.class );
+		ServiceProvider provider = injector.resolve( dependency( ServiceProvider.class ) );
+		assertSame( provider.provide( raw( Number.class ), raw( Integer.class ) ),
+				provider.provide( raw( Number.class ), raw( Integer.class ) ) );
+	}
+
+	@SuppressWarnings ( "unchecked" )
+	@Test
+	public void thatExpiringArgumentsAreResolvedForEachInvocation() {
+		Injector injector = Bootstrap.injector( InjectedArgumentServiceBindsBundle.class );
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<ServiceMethod> dependency = dependency( raw( ServiceMethod.class ).parametized(
+				Character.class, String.class ) );
+		ServiceMethod<Character, String> repeat = injector.resolve( dependency );
+		assertThat( repeat.invoke( 'a' ), is( "aaa" ) );
+		assertThat( repeat.invoke( 'b' ), is( "bbb" ) );
+	}
+
 	@SuppressWarnings ( "unchecked" )
 	@Test
 	public void test() {
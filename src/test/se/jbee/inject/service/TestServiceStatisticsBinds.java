@@ -0,0 +1,100 @@
+package se.jbee.inject.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.Type.raw;
+
+import org.junit.Test;
+
+import se.jbee.inject.Dependency;
+import se.jbee.inject.Injector;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.service.ServiceInvocation.ServiceInvocationExtension;
+import se.jbee.inject.service.ServiceStatistics.Metric;
+
+public class TestServiceStatisticsBinds {
+
+	private static class ServiceStatisticsBindsModule
+			extends ServiceModule {
+
+		@Override
+		protected void declare() {
+			bindServiceMethodsIn( MyMeasuredService.class );
+			extend( ServiceInvocationExtension.RETURN_TYPE, ServiceStatistics.Recorder.class );
+		}
+
+	}
+
+	private static class UnmeasuredServiceBindsModule
+			extends ServiceModule {
+
+		@Override
+		protected void declare() {
+			bindServiceMethodsIn( MyMeasuredService.class );
+		}
+
+	}
+
+	static class MyMeasuredService {
+
+		public Integer parse( String value ) {
+			return Integer.valueOf( value );
+		}
+
+		public Long square( Long value ) {
+			return value * value;
+		}
+	}
+
+	private final Injector injector = Bootstrap.injector( ServiceStatisticsBindsModule.class );
+
+	@SuppressWarnings ( "unchecked" )
+	@Test
+	public void thatCallsAndErrorsAreCountedPerService() {
+		@SuppressWarnings ( "rawtypes" )
+		Dependency<ServiceMethod> dependency = dependency( raw( ServiceMethod.class ).parametized(
+				String.class, Integer.class ) );
+		ServiceMethod<String, Integer> parse = injector.resolve( dependency );
+		for ( int i = 0; i < 10; i++ ) {
+			parse.invoke( String.valueOf( i ) );
+		}
+		try {
+			parse.invoke( "NaN" );
+		} catch ( RuntimeException e ) {
+			// expected
+		}
+		ServiceStatistics stats = injector.resolve( dependency( ServiceStatistics.class ) );
+		Metric m = stats.metric( raw( String.class ), raw( Integer.class ) );
+		assertEquals( 11L, m.calls );
+		assertEquals( 1L, m.errors );
+		assertTrue( m.nanos( 0.5d ) <= m.nanos( 0.99d ) );
+		assertTrue( m.nanos( 0.99d ) <= m.maxNanos );
+		assertNull( stats.metric( raw( Long.class ), raw( Long.class ) ) );
+	}
+
+	@Test
+	public void thatEachInjectionIsANewSnapshot() {
+		assertNotSame( injector.resolve( dependency( ServiceStatistics.class ) ),
+				injector.resolve( dependency( ServiceStatistics.class ) ) );
+	}
+
+	@Test
+	public void thatStatisticsAreEmptyWhenNotMeasured() {
+		Injector injector = Bootstrap.injector( UnmeasuredServiceBindsModule.class );
+		assertEquals( 0, injector.resolve( dependency( ServiceStatistics.class ) ).metrics().length );
+	}
+
+	@Test
+	public void thatHistogramBucketsHaveBoundedRelativeError() {
+		for ( long value = 0L; value < 100000L; value = value * 3 / 2 + 1 ) {
+			long upper = LogLinearHistogram.upperBound( LogLinearHistogram.index( value ) );
+			assertTrue( upper >= value );
+			assertTrue( upper - value <= value / LogLinearHistogram.SUB_BUCKETS );
+		}
+		assertEquals( Long.MAX_VALUE,
+				LogLinearHistogram.upperBound( LogLinearHistogram.index( Long.MAX_VALUE ) ) );
+	}
+}
@@ -1,13 +1,19 @@
 package se.jbee.inject.util;
 
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static se.jbee.inject.Demand.demand;
 import static se.jbee.inject.Dependency.dependency;
 import static se.jbee.inject.Resource.resource;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
 
+import se.jbee.inject.DIRuntimeException.DependencyCycleException;
 import se.jbee.inject.Demand;
 import se.jbee.inject.Injectable;
 import se.jbee.inject.Repository;
@@ -53,4 +59,134 @@ public class TestScopes {
 		assertThat( r.serve( db, ib ), sameInstance( b ) );
 		assertThat( r.serve( db, null ), sameInstance( b ) ); // the null Injectable shouldn't be called now
 	}
+
+	@Test
+	public void thatTargetInstanceScopeEnsuresSingletonPerTarget() {
+		Repository r = Scoped.TARGET_INSTANCE.init();
+		Demand<A> dab = demand( resource( A.class ), dependency( A.class ).injectingInto( B.class ),
+				1, 2 );
+		Demand<A> daa = demand( resource( A.class ), dependency( A.class ).injectingInto( A.class ),
+				1, 2 );
+		A a1 = new A();
+		A a2 = new A();
+		assertThat( r.serve( dab, new ConstantInjectable<A>( a1 ) ), sameInstance( a1 ) );
+		assertThat( r.serve( daa, new ConstantInjectable<A>( a2 ) ), sameInstance( a2 ) );
+		assertThat( r.serve( demand( resource( A.class ), dependency( A.class ).injectingInto(
+				B.class ), 1, 2 ), null ), sameInstance( a1 ) );
+	}
+
+	@Test ( timeout = 5000 )
+	public void thatApplicationScopeInitialisesIndependentInstancesInParallel()
+			throws InterruptedException {
+		final Repository r = Scoped.APPLICATION.init();
+		final Demand<A> da = demand( resource( A.class ), dependency( A.class ), 0, 2 );
+		final Demand<B> db = demand( resource( B.class ), dependency( B.class ), 1, 2 );
+		final CountDownLatch creatingA = new CountDownLatch( 1 );
+		final CountDownLatch createdB = new CountDownLatch( 1 );
+		final A a = new A();
+		Thread t = new Thread( new Runnable() {
+
+			@Override
+			public void run() {
+				r.serve( da, new Injectable<A>() {
+
+					@Override
+					public A instanceFor( Demand<A> demand ) {
+						creatingA.countDown();
+						try {
+							createdB.await( 2, TimeUnit.SECONDS );
+						} catch ( InterruptedException e ) {
+							Thread.currentThread().interrupt();
+						}
+						return a;
+					}
+				} );
+			}
+		} );
+		t.start();
+		creatingA.await();
+		B b = new B();
+		// A is still in creation but that should not block B
+		assertThat( r.serve( db, new ConstantInjectable<B>( b ) ), sameInstance( b ) );
+		createdB.countDown();
+		assertThat( r.serve( da, null ), sameInstance( a ) ); // waits for the other thread
+		t.join();
+	}
+
+	@Test
+	public void thatApplicationScopeDetectsReentrantCreation() {
+		final Repository r = Scoped.APPLICATION.init();
+		final Demand<A> da = demand( resource( A.class ), dependency( A.class ), 0, 1 );
+		final boolean[] cycle = new boolean[1];
+		A a = r.serve( da, new Injectable<A>() {
+
+			@Override
+			public A instanceFor( Demand<A> demand ) {
+				try {
+					r.serve( da, this );
+				} catch ( DependencyCycleException e ) {
+					cycle[0] = true;
+				}
+				return new A();
+			}
+		} );
+		assertThat( cycle[0], is( true ) );
+		assertThat( r.serve( da, null ), sameInstance( a ) );
+	}
+
+	@Test ( timeout = 5000 )
+	public void thatApplicationScopeDetectsCyclesBetweenThreads()
+			throws InterruptedException {
+		final Repository r = Scoped.APPLICATION.init();
+		final Demand<A> da = demand( resource( A.class ), dependency( A.class ), 0, 2 );
+		final Demand<B> db = demand( resource( B.class ), dependency( B.class ), 1, 2 );
+		final CountDownLatch creatingA = new CountDownLatch( 1 );
+		final CountDownLatch creatingB = new CountDownLatch( 1 );
+		final AtomicInteger cycles = new AtomicInteger();
+		Thread t = new Thread( new Runnable() {
+
+			@Override
+			public void run() {
+				r.serve( da, new Injectable<A>() {
+
+					@Override
+					public A instanceFor( Demand<A> demand ) {
+						creatingA.countDown();
+						await( creatingB );
+						try {
+							r.serve( db, null ); // B needs A: one of both has to see the cycle
+						} catch ( DependencyCycleException e ) {
+							cycles.incrementAndGet();
+						}
+						return new A();
+					}
+				} );
+			}
+		} );
+		t.start();
+		r.serve( db, new Injectable<B>() {
+
+			@Override
+			public B instanceFor( Demand<B> demand ) {
+				creatingB.countDown();
+				await( creatingA );
+				try {
+					r.serve( da, null );
+				} catch ( DependencyCycleException e ) {
+					cycles.incrementAndGet();
+				}
+				return new B();
+			}
+		} );
+		t.join();
+		assertThat( cycles.get() >= 1, is( true ) );
+	}
+
+	static void await( CountDownLatch latch ) {
+		try {
+			latch.await();
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+	}
 }